@@ -0,0 +1,115 @@
+package gymsystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the DatabaseHelper calls the desk uses most, run
+ * against a scratch copy of a BenchmarkDataGenerator database.
+ *
+ * DatabaseHelper reads gym.db.url once, when the class loads, so every
+ * parameter combination must get its own JVM: keep forks at 1 or more.
+ *
+ * Run with: ant bench -Dbench.members=10000,100000 -Dbench.payments=3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// targetMillis=1 pins the calibrated cost to the minimum, which is what the generator stores,
+// so validateLogin never rehashes and its cost is the same on every machine
+@Fork(value = 1, jvmArgsAppend = { "-Dgym.login.targetMillis=1", "-Dgym.log.level=WARN", "-Dgym.log.console=false" })
+public class DataAccessBenchmark {
+    private static final int LOGIN_ITERATIONS = PasswordHasher.MIN_ITERATIONS;
+
+    @Param({ "10000" })
+    public int members;
+
+    @Param({ "3" })
+    public int paymentsPerMember;
+
+    private File database;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        File dir = new File(System.getProperty("gym.bench.dataDir", System.getProperty("java.io.tmpdir")));
+        File template = BenchmarkDataGenerator.cached(dir, members, paymentsPerMember,
+                BenchmarkDataGenerator.DEFAULT_SEED, LOGIN_ITERATIONS);
+        // Writes go to a copy so the cached template stays as generated
+        database = File.createTempFile("gym-bench-", ".db", dir);
+        Files.copy(template.toPath(), database.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        System.setProperty("gym.db.url", "jdbc:sqlite:" + database.getPath());
+
+        DatabaseHelper.prepareDatabase();
+        PasswordHasher.getCalibratedIterations();
+        if (!DatabaseHelper.validateLogin(BenchmarkDataGenerator.ADMIN_USER, BenchmarkDataGenerator.ADMIN_PASSWORD)) {
+            throw new IllegalStateException("Benchmark database " + database + " rejected the admin login");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            File f = new File(database.getPath() + suffix);
+            if (!f.delete()) {
+                // Still held by the pool on some platforms; the fork is about to exit anyway
+                f.deleteOnExit();
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean addMember() {
+        int n = ++counter;
+        return DatabaseHelper.addMember("Bench Member " + n, "bench" + n + "@example.com", "555-000-0000",
+                "1 Bench St", 30, "Other", "Monthly", "2024-01-01", "2024-02-01");
+    }
+
+    @Benchmark
+    public List<Member> getAllMembers() {
+        return DatabaseHelper.getAllMembers();
+    }
+
+    @Benchmark
+    public List<Payment> getAllPayments() {
+        return DatabaseHelper.getAllPayments();
+    }
+
+    @Benchmark
+    public int[] getDashboardStats() {
+        return DatabaseHelper.getDashboardStats();
+    }
+
+    // Walks the members with a large prime stride, flipping each between ACTIVE and INACTIVE
+    @Benchmark
+    public boolean updateMemberStatus() {
+        int n = ++counter;
+        int memberId = 1 + (int) ((n * 7919L) % members);
+        return DatabaseHelper.updateMemberStatus(memberId, (n & 1) == 0 ? "ACTIVE" : "INACTIVE");
+    }
+
+    @Benchmark
+    public boolean validateLogin() {
+        return DatabaseHelper.validateLogin(BenchmarkDataGenerator.ADMIN_USER, BenchmarkDataGenerator.ADMIN_PASSWORD);
+    }
+}
@@ -5,11 +5,9 @@ import java.util.Calendar;
 import javax.swing.JOptionPane;
 
 public class AddMemberForm extends javax.swing.JDialog {
-    private final MembersForm parentForm;
     
     public AddMemberForm(MembersForm parent) {
         super(parent, true);
-        this.parentForm = parent;
         initComponents();
         setLocationRelativeTo(parent);
     }
@@ -196,23 +194,29 @@ public class AddMemberForm extends javax.swing.JDialog {
             JOptionPane.showMessageDialog(this, "Please fill in the Full Name and Email.");
             return;
         }
+        int age;
         try {
-            int age = Integer.parseInt(txtAge.getText().trim());
-            boolean success = DatabaseHelper.addMember(
+            age = Integer.parseInt(txtAge.getText().trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage());
+            return;
+        }
+        // The insert is queued on the database writer; the dialog stays responsive until it commits
+        btnSave.setEnabled(false);
+        AsyncDatabase.onEdt(AsyncDatabase.addMember(
                 txtFullName.getText().trim(), txtEmail.getText().trim(),
                 txtPhone.getText().trim(), txtAddress.getText().trim(),
                 age, cmbGender.getSelectedItem().toString(),
                 cmbMembershipType.getSelectedItem().toString(),
                 txtJoinDate.getText().trim(), txtExpiryDate.getText().trim()
-            );
-            if (success) {
+            ), memberId -> {
+                // The members table picks the new row up from DataChanges
                 JOptionPane.showMessageDialog(this, "Member Saved Successfully!");
-                parentForm.refreshTable(); 
                 this.dispose();
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage());
-        }
+            }, error -> {
+                btnSave.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error: " + AsyncDatabase.describe(error));
+            });
     }                                       
 
     private void btnCancelActionPerformed(java.awt.event.ActionEvent evt) {                                          
@@ -0,0 +1,199 @@
+package gymsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Non-blocking front end to DatabaseHelper for the Swing forms.
+ *
+ * Reads run on a small pool of daemon "db-async" threads, sized like the
+ * read-only connection pool since that bounds how many can run at once
+ * anyway. Writes reuse the futures of the single writer queue. Every call
+ * gets a timeout (gym.db.timeoutMillis, default 15 s) after which its
+ * future fails with TimeoutException. Cancelling a future drops the call if
+ * it hasn't started; a call already running finishes and its result is
+ * discarded.
+ *
+ * Use onEdt() to get the outcome back on the Event Dispatch Thread.
+ */
+public final class AsyncDatabase {
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("gym.db.timeoutMillis", 15_000);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger("gym.db.readers", 4), r -> {
+                Thread t = new Thread(r, "db-async-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    private static final ScheduledThreadPoolExecutor timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "db-timeout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        // Most calls finish long before their timeout; don't keep the cancelled timers queued
+        timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    private AsyncDatabase() {
+    }
+
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return supply(call, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // Runs call on a db-async thread
+    public static <T> CompletableFuture<T> supply(Supplier<T> call, long timeoutMillis) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            if (future.isDone()) {
+                return; // cancelled or timed out while queued
+            }
+            try {
+                future.complete(call.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((result, error) -> task.cancel(false));
+        return withTimeout(future, timeoutMillis);
+    }
+
+    // Fails future with a TimeoutException if it is still pending after timeoutMillis
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeoutMillis) {
+        if (timeoutMillis > 0 && !future.isDone()) {
+            ScheduledFuture<?> timer = timeouts.schedule(() -> future.completeExceptionally(
+                    new TimeoutException("Database call timed out after " + timeoutMillis + " ms")),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, error) -> timer.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * Calls onResult or onError on the EDT once future completes. Nothing is
+     * called for a cancelled future, so a form can cancel its pending loads
+     * in dispose() and never be called back.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onResult, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (future.isCancelled()) {
+                    return;
+                }
+                if (error == null) {
+                    onResult.accept(result);
+                } else {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+    }
+
+    // The real failure behind a CompletionException
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // User-facing text for a failed call
+    public static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof TimeoutException) {
+            return "The database did not answer in time. Please try again.";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    public static CompletableFuture<Boolean> validateLogin(String username, String password) {
+        return supply(() -> DatabaseHelper.validateLogin(username, password));
+    }
+
+    public static CompletableFuture<Integer> countMembers() {
+        return supply(DatabaseHelper::countMembers);
+    }
+
+    public static CompletableFuture<List<Member>> getMembersPage(int afterMemberId, int pageSize) {
+        return supply(() -> DatabaseHelper.getMembersPage(afterMemberId, pageSize));
+    }
+
+    public static CompletableFuture<Integer> findMemberIdAfter(int afterMemberId, int skip) {
+        return supply(() -> DatabaseHelper.findMemberIdAfter(afterMemberId, skip));
+    }
+
+    public static CompletableFuture<Member> getMember(int memberId) {
+        return supply(() -> DatabaseHelper.getMember(memberId));
+    }
+
+    // Members that no longer exist are left out
+    public static CompletableFuture<List<Member>> getMembers(int[] memberIds) {
+        return supply(() -> {
+            List<Member> members = new ArrayList<>(memberIds.length);
+            for (int id : memberIds) {
+                Member m = DatabaseHelper.getMember(id);
+                if (m != null) {
+                    members.add(m);
+                }
+            }
+            return members;
+        });
+    }
+
+    public static CompletableFuture<List<Member>> getAllMembers() {
+        return supply(DatabaseHelper::getAllMembers);
+    }
+
+    public static CompletableFuture<List<Payment>> getAllPayments() {
+        return supply(DatabaseHelper::getAllPayments);
+    }
+
+    public static CompletableFuture<Integer> countPayments(PaymentQuery query) {
+        return supply(() -> DatabaseHelper.countPayments(query));
+    }
+
+    public static CompletableFuture<List<Payment>> findPayments(PaymentQuery query) {
+        return supply(() -> DatabaseHelper.findPayments(query));
+    }
+
+    public static CompletableFuture<int[]> getDashboardStats() {
+        return supply(DatabaseHelper::getDashboardStats);
+    }
+
+    // A timed-out write may still be committed later; it is not rolled back
+    public static CompletableFuture<Integer> addMember(String fullName, String email, String phone,
+                                                       String address, int age, String gender,
+                                                       String membershipType, String joinDate, String expiryDate) {
+        return withTimeout(DatabaseHelper.addMemberAsync(fullName, email, phone, address, age, gender,
+                membershipType, joinDate, expiryDate), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public static CompletableFuture<Integer> addPayment(int memberId, double amount, String paymentDate,
+                                                        String paymentType, String month, String status) {
+        return withTimeout(DatabaseHelper.addPaymentAsync(memberId, amount, paymentDate, paymentType, month, status),
+                DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public static CompletableFuture<Integer> updateMemberStatus(int[] memberIds, String status) {
+        return withTimeout(DatabaseHelper.updateMemberStatusAsync(memberIds, status), DEFAULT_TIMEOUT_MILLIS);
+    }
+}
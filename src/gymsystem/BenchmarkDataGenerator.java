@@ -0,0 +1,185 @@
+package gymsystem;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Builds a synthetic gym database for benchmarks and load tests.
+ *
+ * The same (members, paymentsPerMember, seed) always produces the same
+ * rows: dates are counted from a fixed day rather than today, and every
+ * value comes from one seeded Random. Files are cached by those
+ * parameters and the schema version, so a 1M-member database is only
+ * generated once per machine.
+ *
+ * Run with: java gymsystem.BenchmarkDataGenerator file members [paymentsPerMember] [seed]
+ */
+public class BenchmarkDataGenerator {
+    public static final long DEFAULT_SEED = 20240101L;
+    public static final String ADMIN_USER = "admin";
+    public static final String ADMIN_PASSWORD = "admin123";
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDate FIRST_JOIN = LocalDate.of(2022, 1, 1);
+    private static final int JOIN_DAYS = 3 * 365;
+
+    private static final String[] FIRST_NAMES = { "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda",
+            "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Ahmed", "Fatima",
+            "Wei", "Mei", "Carlos", "Lucia", "Ivan", "Olga", "Kwame", "Amara", "Hiroshi", "Yuki" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+            "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Martin", "Khan",
+            "Chen", "Nguyen", "Kim", "Silva", "Petrov", "Mensah", "Okafor", "Tanaka", "Sato", "Muller", "Rossi" };
+    private static final String[] STREETS = { "Main St", "Oak Ave", "Park Rd", "Hill St", "Lake Dr", "Cedar Ln", "River Rd", "High St" };
+    private static final String[] GENDERS = { "Male", "Female", "Other" };
+    private static final String[] MEMBERSHIP_TYPES = { "Monthly", "Quarterly", "Half-Yearly", "Yearly" };
+    private static final int[] MEMBERSHIP_MONTHS = { 1, 3, 6, 12 };
+    private static final double[] MEMBERSHIP_FEES = { 50, 135, 250, 450 };
+    private static final String[] PAYMENT_TYPES = { "Cash", "Credit Card", "Debit Card", "Bank Transfer" };
+
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO payments(member_id, amount, payment_date, payment_type, month, status) " +
+            "VALUES(?,?,?,?,?,?)";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java gymsystem.BenchmarkDataGenerator file members [paymentsPerMember] [seed]");
+            return;
+        }
+        File file = new File(args[0]);
+        int members = Integer.parseInt(args[1]);
+        int paymentsPerMember = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        long start = System.nanoTime();
+        generate(file, members, paymentsPerMember, seed, PasswordHasher.MIN_ITERATIONS);
+        System.out.println(String.format("Generated %s: %d members, %d payments in %.1f s", file, members,
+                (long) members * paymentsPerMember, (System.nanoTime() - start) / 1e9));
+    }
+
+    // Returns the cached file for these parameters in dir, generating it first if needed
+    public static File cached(File dir, int members, int paymentsPerMember, long seed, int loginIterations) throws SQLException {
+        File file = new File(dir, String.format("gym-bench-v%d-m%d-p%d-s%d-i%d.db", SchemaMigrations.CURRENT_VERSION,
+                members, paymentsPerMember, seed, loginIterations));
+        if (!file.isFile()) {
+            dir.mkdirs();
+            // Generate under a temporary name so an interrupted run never leaves a half-filled cache entry
+            File partial = new File(dir, file.getName() + ".partial");
+            partial.delete();
+            generate(partial, members, paymentsPerMember, seed, loginIterations);
+            if (!partial.renameTo(file)) {
+                throw new SQLException("Could not move " + partial + " to " + file);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Creates file with the current schema, members members and
+     * paymentsPerMember payments each. The admin password is stored as a
+     * PBKDF2 hash with loginIterations so login cost doesn't depend on the
+     * machine's calibration.
+     */
+    public static void generate(File file, int members, int paymentsPerMember, long seed, int loginIterations) throws SQLException {
+        if (file.exists() && !file.delete()) {
+            throw new SQLException("Could not replace " + file);
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not on the classpath", e);
+        }
+        Random random = new Random(seed);
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + file.getPath())) {
+            try (Statement stmt = c.createStatement()) {
+                // Throwaway file: no rollback journal or fsync while loading
+                stmt.execute("PRAGMA journal_mode = OFF");
+                stmt.execute("PRAGMA synchronous = OFF");
+                stmt.execute("PRAGMA cache_size = -64000");
+            }
+            SchemaMigrations.migrate(c);
+            c.setAutoCommit(false);
+            insertMembers(c, random, members);
+            insertPayments(c, random, members, paymentsPerMember);
+            storeAdminPassword(c, loginIterations);
+            c.commit();
+            c.setAutoCommit(true);
+            try (Statement stmt = c.createStatement()) {
+                stmt.execute("ANALYZE");
+                stmt.execute("PRAGMA journal_mode = DELETE");
+            }
+        }
+    }
+
+    private static void insertMembers(Connection c, Random random, int members) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(DatabaseHelper.INSERT_MEMBER_SQL)) {
+            for (int i = 1; i <= members; i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                int type = random.nextInt(MEMBERSHIP_TYPES.length);
+                LocalDate joined = FIRST_JOIN.plusDays(random.nextInt(JOIN_DAYS));
+                pstmt.setString(1, first + " " + last);
+                pstmt.setString(2, (first + "." + last + i + "@example.com").toLowerCase(Locale.ROOT));
+                pstmt.setString(3, String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10_000)));
+                pstmt.setString(4, (1 + random.nextInt(999)) + " " + STREETS[random.nextInt(STREETS.length)]);
+                pstmt.setInt(5, 16 + random.nextInt(55));
+                pstmt.setString(6, GENDERS[random.nextInt(GENDERS.length)]);
+                pstmt.setString(7, MEMBERSHIP_TYPES[type]);
+                pstmt.setString(8, joined.toString());
+                pstmt.setString(9, joined.plusMonths(MEMBERSHIP_MONTHS[type]).toString());
+                pstmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        // About one member in six has lapsed
+        try (PreparedStatement pstmt = c.prepareStatement("UPDATE members SET status = 'INACTIVE' WHERE member_id % 6 = ?")) {
+            pstmt.setInt(1, random.nextInt(6));
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void insertPayments(Connection c, Random random, int members, int paymentsPerMember) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(INSERT_PAYMENT_SQL)) {
+            long count = 0;
+            for (int memberId = 1; memberId <= members; memberId++) {
+                int type = random.nextInt(MEMBERSHIP_TYPES.length);
+                LocalDate paid = FIRST_JOIN.plusDays(random.nextInt(JOIN_DAYS));
+                for (int p = 0; p < paymentsPerMember; p++) {
+                    pstmt.setInt(1, memberId);
+                    pstmt.setDouble(2, MEMBERSHIP_FEES[type]);
+                    pstmt.setString(3, paid.toString());
+                    pstmt.setString(4, PAYMENT_TYPES[random.nextInt(PAYMENT_TYPES.length)]);
+                    pstmt.setString(5, paid.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+                    // Older payments are settled; the latest one is pending one time in five
+                    pstmt.setString(6, p < paymentsPerMember - 1 || random.nextInt(5) != 0 ? "PAID" : "PENDING");
+                    pstmt.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        pstmt.executeBatch();
+                    }
+                    paid = paid.plusMonths(MEMBERSHIP_MONTHS[type]);
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void storeAdminPassword(Connection c, int iterations) throws SQLException {
+        PasswordHasher.Hash hash = PasswordHasher.hash(ADMIN_PASSWORD, iterations);
+        try (PreparedStatement pstmt = c.prepareStatement(
+                "UPDATE users SET password = ?, password_salt = ?, password_iterations = ? WHERE username = ?")) {
+            pstmt.setString(1, hash.hash);
+            pstmt.setString(2, hash.salt);
+            pstmt.setInt(3, hash.iterations);
+            pstmt.setString(4, ADMIN_USER);
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package gymsystem;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+
+/**
+ * Cell renderers for tblMembers and tblPayments that format each distinct
+ * value once.
+ *
+ * Amounts and dates repeat a lot, so the formatted text is kept in a
+ * small LRU map per renderer and a repaint while scrolling costs a lookup
+ * instead of a DecimalFormat or DateTimeFormatter call per visible cell.
+ * Status colors and the bold status font are computed once as well.
+ * Renderers only run on the EDT, so nothing here is synchronized.
+ */
+public final class CellRenderers {
+    private static final int CACHE_SIZE = 4096;
+
+    private static final Map<String, Color> STATUS_COLORS = new HashMap<>();
+
+    static {
+        Color green = new Color(0, 128, 0);
+        STATUS_COLORS.put("ACTIVE", green);
+        STATUS_COLORS.put("PAID", green);
+        STATUS_COLORS.put("PENDING", new Color(204, 102, 0));
+        STATUS_COLORS.put("INACTIVE", Color.GRAY);
+        STATUS_COLORS.put(ExpirySweeper.EXPIRED, new Color(192, 0, 0));
+    }
+
+    private CellRenderers() {
+    }
+
+    // Right-aligned dollars, like the dashboard's revenue figure
+    public static TableCellRenderer currency() {
+        DecimalFormat format = new DecimalFormat("$#,##0.00");
+        FormattingRenderer renderer = new FormattingRenderer(value -> format.format(((Number) value).doubleValue()));
+        renderer.setHorizontalAlignment(JLabel.RIGHT);
+        return renderer;
+    }
+
+    public static TableCellRenderer date() {
+        return new FormattingRenderer(value -> DateTimeFormatter.ISO_LOCAL_DATE.format((LocalDate) value));
+    }
+
+    public static TableCellRenderer status() {
+        return new StatusRenderer();
+    }
+
+    // Currency for Double columns, dates for LocalDate columns and status colors for statusColumn (model index)
+    public static void install(JTable table, int statusColumn) {
+        table.setDefaultRenderer(Double.class, currency());
+        table.setDefaultRenderer(LocalDate.class, date());
+        table.getColumnModel().getColumn(table.convertColumnIndexToView(statusColumn)).setCellRenderer(status());
+    }
+
+    // Sets its text from a cache of formatted values
+    private static final class FormattingRenderer extends DefaultTableCellRenderer {
+        private final Function<Object, String> format;
+        private final Map<Object, String> cache = new LinkedHashMap<Object, String>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+
+        FormattingRenderer(Function<Object, String> format) {
+            this.format = format;
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            setText(value == null ? "" : cache.computeIfAbsent(value, format));
+        }
+    }
+
+    private static final class StatusRenderer extends DefaultTableCellRenderer {
+        private Font baseFont;
+        private Font boldFont;
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (table.getFont() != baseFont) {
+                baseFont = table.getFont();
+                boldFont = baseFont.deriveFont(Font.BOLD);
+            }
+            setFont(boldFont);
+            if (!isSelected) {
+                Color color = STATUS_COLORS.get(value);
+                setForeground(color != null ? color : table.getForeground());
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gymsystem;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs a load off the EDT and hands the result back on the EDT.
+ *
+ * Requests never queue up: while a load is running, any number of new
+ * requests collapse into a single follow-up run, which starts as soon as
+ * the current one finishes so the last result is always fresh.
+ */
+public class CoalescingTask<T> {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int RUNNING_AGAIN = 2;
+
+    private final Callable<T> load;
+    private final Consumer<T> onResult;
+    private final Consumer<Exception> onError;
+    private final ExecutorService executor;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    public CoalescingTask(String name, Callable<T> load, Consumer<T> onResult, Consumer<Exception> onError) {
+        this.load = load;
+        this.onResult = onResult;
+        this.onError = onError;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Safe to call from any thread, including the EDT; never blocks
+    public void request() {
+        while (true) {
+            int current = state.get();
+            if (current == IDLE) {
+                if (state.compareAndSet(IDLE, RUNNING)) {
+                    executor.execute(this::run);
+                    return;
+                }
+            } else if (current == RUNNING_AGAIN || state.compareAndSet(RUNNING, RUNNING_AGAIN)) {
+                return;
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return state.get() != IDLE;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        do {
+            // Anything requested from here on needs another pass
+            state.set(RUNNING);
+            try {
+                T result = load.call();
+                SwingUtilities.invokeLater(() -> onResult.accept(result));
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> onError.accept(e));
+            }
+        } while (!state.compareAndSet(RUNNING, IDLE));
+    }
+}
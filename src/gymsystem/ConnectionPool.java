@@ -0,0 +1,284 @@
+package gymsystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small bounded pool of long-lived SQLite connections.
+ *
+ * Callers keep using try-with-resources: the Connection handed out by
+ * borrow() is a lease whose close() returns the underlying connection to
+ * the pool instead of closing it. PRAGMA setup runs once per physical
+ * connection, when it is opened, and each physical connection keeps its
+ * own StatementCache so repeated SQL skips the prepare step.
+ *
+ * A read-only pool sets PRAGMA query_only on its connections; in WAL mode
+ * they read from their own snapshot and never wait for the writer.
+ */
+public class ConnectionPool {
+    private static final long BORROW_TIMEOUT_MS = 10000;
+    // Idle connections older than this get a validation query before reuse
+    private static final long VALIDATE_AFTER_IDLE_MS = 30000;
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final StorageProfile profile;
+    private final boolean readOnly;
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    public ConnectionPool(String url, int maxSize) {
+        this(url, maxSize, null);
+    }
+
+    public ConnectionPool(String url, int maxSize, StorageProfile profile) {
+        this(url, maxSize, profile, false);
+    }
+
+    public ConnectionPool(String url, int maxSize, StorageProfile profile, boolean readOnly) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.profile = profile;
+        this.readOnly = readOnly;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MS;
+        while (true) {
+            PooledConnection pc = idle.poll();
+            if (pc == null) {
+                pc = tryOpen();
+            } else if (isHealthy(pc)) {
+                reused.incrementAndGet();
+            } else {
+                discard(pc);
+                continue;
+            }
+            if (pc == null) {
+                // Pool is at capacity, wait for a connection to come back
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SQLException("Timed out waiting for a database connection (pool size " + maxSize + ")");
+                }
+                try {
+                    pc = idle.poll(remaining, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", e);
+                }
+                if (pc == null) {
+                    continue;
+                }
+                if (!isHealthy(pc)) {
+                    discard(pc);
+                    continue;
+                }
+                reused.incrementAndGet();
+            }
+            return pc.lease();
+        }
+    }
+
+    private PooledConnection tryOpen() throws SQLException {
+        while (true) {
+            int current = size.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection raw = DriverManager.getConnection(url);
+            setup(raw);
+            opened.incrementAndGet();
+            return new PooledConnection(raw);
+        } catch (SQLException | RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    // Per-connection settings, applied once when the connection is opened
+    protected void setup(Connection raw) throws SQLException {
+        try (Statement stmt = raw.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("PRAGMA busy_timeout = 5000");
+        }
+        if (profile != null) {
+            profile.apply(raw);
+        }
+        if (readOnly) {
+            // After the profile, which may still need to switch the journal mode
+            try (Statement stmt = raw.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+    }
+
+    private boolean isHealthy(PooledConnection pc) {
+        try {
+            if (pc.raw.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pc.lastReturned > VALIDATE_AFTER_IDLE_MS) {
+                return pc.raw.isValid(VALIDATE_TIMEOUT_SECONDS);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        boolean healthy = true;
+        try {
+            if (pc.raw.isClosed()) {
+                healthy = false;
+            } else if (!pc.raw.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        if (!healthy || closed) {
+            discard(pc);
+            return;
+        }
+        pc.lastReturned = System.currentTimeMillis();
+        if (!idle.offer(pc)) {
+            discard(pc);
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        discarded.incrementAndGet();
+        size.decrementAndGet();
+        pc.statements.closeAll();
+        try {
+            pc.raw.close();
+        } catch (SQLException e) {
+            // Already broken, nothing else to do
+        }
+    }
+
+    public void close() {
+        closed = true;
+        PooledConnection pc;
+        while ((pc = idle.poll()) != null) {
+            discard(pc);
+        }
+    }
+
+    public long getOpenedCount() {
+        return opened.get();
+    }
+
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public String toString() {
+        return (readOnly ? "Read-only connection pool: " : "Connection pool: ") + opened.get() + " opened, " + reused.get() + " reused, "
+                + discarded.get() + " discarded, " + idle.size() + "/" + size.get() + " idle (max " + maxSize + ")";
+    }
+
+    // A physical connection owned by the pool
+    private final class PooledConnection {
+        final Connection raw;
+        final StatementCache statements;
+        volatile long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new StatementCache(raw, StatementCache.DEFAULT_CAPACITY);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Lease(this));
+        }
+    }
+
+    // One checkout of a pooled connection; close() hands it back exactly once
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean returned = false;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name) && method.getParameterCount() == 0) {
+                if (!returned) {
+                    returned = true;
+                    release(pc);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && method.getParameterCount() == 0) {
+                return returned || pc.raw.isClosed();
+            }
+            if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(name) && method.getParameterCount() == 1) {
+                return pc.statements.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
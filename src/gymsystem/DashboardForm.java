@@ -1,29 +1,86 @@
 package gymsystem;
 
 import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.function.Consumer;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
 import javax.swing.JOptionPane;
+import javax.swing.KeyStroke;
+import javax.swing.Timer;
 
 public class DashboardForm extends javax.swing.JFrame {
+    private static final Log log = Log.get(DashboardForm.class);
+    private static final int[] AUTO_REFRESH_SECONDS = {0, 10, 30, 60};
+
+    // Stats load on a background thread; overlapping requests coalesce. A failed read
+    // keeps the last figures on screen and says so instead of showing zeros.
+    private final CoalescingTask<int[]> statsLoader = new CoalescingTask<>("dashboard-stats",
+            DatabaseHelper::readDashboardStats, this::showDashboardStats, this::showStatsError);
+    private final Timer autoRefreshTimer = new Timer(0, evt -> loadDashboardStats());
+    // Every member or payment change can move the counters; one row to re-read
+    private final Consumer<DataChange> changeListener = change -> {
+        if (change.touchesMembers() || change.touchesPayments()) {
+            loadDashboardStats();
+        }
+    };
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+    private Date lastUpdated;
 
     public DashboardForm() {
         initComponents();
         setLocationRelativeTo(null);
+        installDiagnosticsShortcut();
+        DataChanges.subscribe(changeListener);
         loadDashboardStats();
     }
+
+    // Hidden on purpose: Ctrl+Shift+D opens the database diagnostics window
+    private void installDiagnosticsShortcut() {
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        getRootPane().getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                new DiagnosticsForm().setVisible(true);
+            }
+        });
+    }
     
     private void loadDashboardStats() {
-        try {
-            int[] stats = DatabaseHelper.getDashboardStats();
-            // Add a null check
-            if (stats != null && stats.length >= 4) {
-                lblTotalMembers.setText(String.valueOf(stats[0]));
-                lblActiveMembers.setText(String.valueOf(stats[1]));
-                lblTotalRevenue.setText("$" + stats[2]);
-                lblPendingPayments.setText(String.valueOf(stats[3]));
-            }
-        } catch (Exception e) {
-            System.out.println("Database stats error: " + e.getMessage());
+        if (lastUpdated == null) {
+            lblLastUpdated.setText("Loading...");
+        }
+        statsLoader.request();
+    }
+    
+    private void showDashboardStats(int[] stats) {
+        // Add a null check
+        if (stats != null && stats.length >= 4) {
+            lblTotalMembers.setText(String.valueOf(stats[0]));
+            lblActiveMembers.setText(String.valueOf(stats[1]));
+            lblTotalRevenue.setText("$" + stats[2]);
+            lblPendingPayments.setText(String.valueOf(stats[3]));
         }
+        lastUpdated = new Date();
+        lblLastUpdated.setText("Last updated " + timeFormat.format(lastUpdated));
+    }
+    
+    private void showStatsError(Exception e) {
+        log.warn("Dashboard stats refresh failed: %s", e.getMessage());
+        lblLastUpdated.setText("Refresh failed at " + timeFormat.format(new Date()));
+    }
+
+    @Override
+    public void dispose() {
+        DataChanges.unsubscribe(changeListener);
+        autoRefreshTimer.stop();
+        statsLoader.shutdown();
+        super.dispose();
     }
 
     @SuppressWarnings("unchecked")
@@ -32,6 +89,8 @@ public class DashboardForm extends javax.swing.JFrame {
 
         jPanel1 = new javax.swing.JPanel();
         jLabel1 = new javax.swing.JLabel();
+        lblLastUpdated = new javax.swing.JLabel();
+        cmbAutoRefresh = new javax.swing.JComboBox<>();
         btnRefresh = new javax.swing.JButton();
         jPanel2 = new javax.swing.JPanel();
         jLabel2 = new javax.swing.JLabel();
@@ -60,6 +119,17 @@ public class DashboardForm extends javax.swing.JFrame {
         jLabel1.setForeground(new java.awt.Color(255, 255, 255));
         jLabel1.setText("DASHBOARD");
 
+        lblLastUpdated.setFont(new java.awt.Font("Segoe UI", 0, 12)); // NOI18N
+        lblLastUpdated.setForeground(new java.awt.Color(255, 255, 255));
+        lblLastUpdated.setText(" ");
+
+        cmbAutoRefresh.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Auto: Off", "Auto: 10 s", "Auto: 30 s", "Auto: 60 s" }));
+        cmbAutoRefresh.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                cmbAutoRefreshActionPerformed(evt);
+            }
+        });
+
         btnRefresh.setBackground(new java.awt.Color(0, 204, 51));
         btnRefresh.setFont(new java.awt.Font("Segoe UI", 1, 12)); // NOI18N
         btnRefresh.setForeground(new java.awt.Color(255, 255, 255));
@@ -78,6 +148,10 @@ public class DashboardForm extends javax.swing.JFrame {
                 .addContainerGap()
                 .addComponent(jLabel1)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                .addComponent(lblLastUpdated)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(cmbAutoRefresh, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(btnRefresh)
                 .addGap(24, 24, 24))
         );
@@ -87,6 +161,8 @@ public class DashboardForm extends javax.swing.JFrame {
                 .addContainerGap()
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(jLabel1)
+                    .addComponent(lblLastUpdated)
+                    .addComponent(cmbAutoRefresh, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(btnRefresh))
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
@@ -293,9 +369,18 @@ public class DashboardForm extends javax.swing.JFrame {
 
     private void btnRefreshActionPerformed(java.awt.event.ActionEvent evt) {                                           
         loadDashboardStats();
-        JOptionPane.showMessageDialog(this, "Dashboard statistics refreshed!", "Refresh", JOptionPane.INFORMATION_MESSAGE);
     }                                          
 
+    private void cmbAutoRefreshActionPerformed(java.awt.event.ActionEvent evt) {                                               
+        int seconds = AUTO_REFRESH_SECONDS[cmbAutoRefresh.getSelectedIndex()];
+        autoRefreshTimer.stop();
+        if (seconds > 0) {
+            autoRefreshTimer.setDelay(seconds * 1000);
+            autoRefreshTimer.setInitialDelay(seconds * 1000);
+            autoRefreshTimer.start();
+        }
+    }                                              
+
     private void btnMembersActionPerformed(java.awt.event.ActionEvent evt) {                                           
         try {
             MembersForm membersWindow = new MembersForm();
@@ -332,6 +417,7 @@ public class DashboardForm extends javax.swing.JFrame {
     private javax.swing.JButton btnMembers;
     private javax.swing.JButton btnPayments;
     private javax.swing.JButton btnRefresh;
+    private javax.swing.JComboBox<String> cmbAutoRefresh;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
     private javax.swing.JLabel jLabel3;
@@ -343,6 +429,7 @@ public class DashboardForm extends javax.swing.JFrame {
     private javax.swing.JPanel jPanel4;
     private javax.swing.JPanel jPanel5;
     private javax.swing.JLabel lblActiveMembers;
+    private javax.swing.JLabel lblLastUpdated;
     private javax.swing.JLabel lblPendingPayments;
     private javax.swing.JLabel lblTotalMembers;
     private javax.swing.JLabel lblTotalRevenue;
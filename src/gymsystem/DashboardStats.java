@@ -0,0 +1,176 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Dashboard counters kept in a one-row summary table.
+ *
+ * Triggers on members and payments adjust the counters on every insert,
+ * update and delete, so the dashboard reads a single row instead of
+ * scanning both tables. verify() recomputes everything in one aggregate
+ * query and reports (and optionally repairs) any drift.
+ *
+ * Run standalone with: java gymsystem.DashboardStats [--verify | --rebuild]
+ */
+public class DashboardStats {
+    // Revenue is a running REAL sum, so allow for rounding
+    private static final double REVENUE_TOLERANCE = 0.005;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS dashboard_stats (" +
+            "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+            "total_members INTEGER NOT NULL DEFAULT 0," +
+            "active_members INTEGER NOT NULL DEFAULT 0," +
+            "paid_revenue REAL NOT NULL DEFAULT 0," +
+            "pending_payments INTEGER NOT NULL DEFAULT 0)";
+
+    // status is nullable and NULL = 'ACTIVE' is NULL, which the NOT NULL counters would reject: hence IFNULL
+    private static final String[] TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_member_insert AFTER INSERT ON members BEGIN " +
+            "UPDATE dashboard_stats SET total_members = total_members + 1, " +
+            "active_members = active_members + IFNULL(NEW.status = 'ACTIVE', 0) WHERE id = 1; END",
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_member_delete AFTER DELETE ON members BEGIN " +
+            "UPDATE dashboard_stats SET total_members = total_members - 1, " +
+            "active_members = active_members - IFNULL(OLD.status = 'ACTIVE', 0) WHERE id = 1; END",
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_member_status AFTER UPDATE OF status ON members BEGIN " +
+            "UPDATE dashboard_stats SET " +
+            "active_members = active_members + IFNULL(NEW.status = 'ACTIVE', 0) - IFNULL(OLD.status = 'ACTIVE', 0) WHERE id = 1; END",
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_payment_insert AFTER INSERT ON payments BEGIN " +
+            "UPDATE dashboard_stats SET " +
+            "paid_revenue = paid_revenue + (CASE WHEN NEW.status = 'PAID' THEN IFNULL(NEW.amount, 0) ELSE 0 END), " +
+            "pending_payments = pending_payments + IFNULL(NEW.status = 'PENDING', 0) WHERE id = 1; END",
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_payment_delete AFTER DELETE ON payments BEGIN " +
+            "UPDATE dashboard_stats SET " +
+            "paid_revenue = paid_revenue - (CASE WHEN OLD.status = 'PAID' THEN IFNULL(OLD.amount, 0) ELSE 0 END), " +
+            "pending_payments = pending_payments - IFNULL(OLD.status = 'PENDING', 0) WHERE id = 1; END",
+        "CREATE TRIGGER IF NOT EXISTS trg_stats_payment_update AFTER UPDATE OF status, amount ON payments BEGIN " +
+            "UPDATE dashboard_stats SET " +
+            "paid_revenue = paid_revenue " +
+            "- (CASE WHEN OLD.status = 'PAID' THEN IFNULL(OLD.amount, 0) ELSE 0 END) " +
+            "+ (CASE WHEN NEW.status = 'PAID' THEN IFNULL(NEW.amount, 0) ELSE 0 END), " +
+            "pending_payments = pending_payments - IFNULL(OLD.status = 'PENDING', 0) + IFNULL(NEW.status = 'PENDING', 0) WHERE id = 1; END"
+    };
+
+    // One pass over each table
+    private static final String AGGREGATE_SQL = "SELECT " +
+            "(SELECT COUNT(*) FROM members), " +
+            "(SELECT IFNULL(SUM(status = 'ACTIVE'), 0) FROM members), " +
+            "(SELECT IFNULL(SUM(CASE WHEN status = 'PAID' THEN amount ELSE 0 END), 0) FROM payments), " +
+            "(SELECT IFNULL(SUM(status = 'PENDING'), 0) FROM payments)";
+
+    private static final String READ_SQL = "SELECT total_members, active_members, paid_revenue, pending_payments " +
+            "FROM dashboard_stats WHERE id = 1";
+
+    private static final String STORE_SQL = "INSERT OR REPLACE INTO dashboard_stats " +
+            "(id, total_members, active_members, paid_revenue, pending_payments) VALUES (1, ?, ?, ?, ?)";
+
+    private static final String[] TRIGGER_NAMES = {
+        "trg_stats_member_insert", "trg_stats_member_delete", "trg_stats_member_status",
+        "trg_stats_payment_insert", "trg_stats_payment_delete", "trg_stats_payment_update"
+    };
+
+    // Replaces triggers created by an older version with the current definitions
+    public static void reinstallTriggers(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement()) {
+            for (String name : TRIGGER_NAMES) {
+                stmt.execute("DROP TRIGGER IF EXISTS " + name);
+            }
+            for (String trigger : TRIGGERS) {
+                stmt.execute(trigger);
+            }
+        }
+    }
+
+    // Creates the summary table and triggers; seeds the row from current data if it is missing
+    public static void install(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement()) {
+            stmt.execute(CREATE_TABLE);
+            for (String trigger : TRIGGERS) {
+                stmt.execute(trigger);
+            }
+        }
+        if (read(c) == null) {
+            store(c, aggregate(c));
+        }
+    }
+
+    // {total members, active members, paid revenue, pending payments}, or null if not installed
+    public static double[] read(Connection c) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(READ_SQL); ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            return new double[] { rs.getInt(1), rs.getInt(2), rs.getDouble(3), rs.getInt(4) };
+        }
+    }
+
+    // Recomputes the counters from the base tables. Returns a drift report; repair=true stores the fresh values.
+    public static String verify(Connection c, boolean repair) throws SQLException {
+        boolean autoCommit = c.getAutoCommit();
+        c.setAutoCommit(false);
+        try {
+            // Read both inside one transaction so a concurrent write can't look like drift
+            double[] actual = aggregate(c);
+            double[] stored = read(c);
+            StringBuilder report = new StringBuilder();
+            if (stored == null) {
+                report.append("Summary row missing");
+            } else {
+                String[] names = { "total_members", "active_members", "paid_revenue", "pending_payments" };
+                for (int i = 0; i < names.length; i++) {
+                    double tolerance = i == 2 ? REVENUE_TOLERANCE : 0;
+                    if (Math.abs(stored[i] - actual[i]) > tolerance) {
+                        if (report.length() > 0) {
+                            report.append(", ");
+                        }
+                        report.append(names[i]).append(" stored ").append(format(stored[i]))
+                                .append(" actual ").append(format(actual[i]));
+                    }
+                }
+            }
+            boolean drifted = report.length() > 0;
+            if (drifted && repair) {
+                store(c, actual);
+            }
+            c.commit();
+            if (!drifted) {
+                return "Dashboard stats OK";
+            }
+            return "Dashboard stats drift: " + report + (repair ? " (repaired)" : "");
+        } catch (SQLException e) {
+            c.rollback();
+            throw e;
+        } finally {
+            c.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static double[] aggregate(Connection c) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(AGGREGATE_SQL); ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return new double[] { rs.getInt(1), rs.getInt(2), rs.getDouble(3), rs.getInt(4) };
+        }
+    }
+
+    private static void store(Connection c, double[] values) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(STORE_SQL)) {
+            pstmt.setInt(1, (int) values[0]);
+            pstmt.setInt(2, (int) values[1]);
+            pstmt.setDouble(3, values[2]);
+            pstmt.setInt(4, (int) values[3]);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.2f", value);
+    }
+
+    public static void main(String[] args) {
+        boolean repair = args.length > 0 && "--rebuild".equals(args[0]);
+        System.out.println(DatabaseHelper.verifyDashboardStats(repair));
+    }
+}
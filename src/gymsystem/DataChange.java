@@ -0,0 +1,127 @@
+package gymsystem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * What changed in the database, as published on DataChanges.
+ *
+ * Writes made through DatabaseHelper say exactly which rows they touched.
+ * Bulk jobs (CSV import, expiry sweep, reset) only say which table changed,
+ * and a change seen through PRAGMA data_version (another process, or a
+ * migration or reset on a maintenance connection) could be anything;
+ * listeners reload what they show in those cases.
+ *
+ * Listeners get several changes merged into one; see merge().
+ */
+public final class DataChange {
+    // Newest first, like the members table
+    private final Set<Integer> addedMembers = new TreeSet<>(Collections.reverseOrder());
+    // member_id -> new status, last update wins
+    private final Map<Integer, String> memberStatus = new LinkedHashMap<>();
+    private final Set<Integer> addedPayments = new TreeSet<>(Collections.reverseOrder());
+    private boolean membersChanged;
+    private boolean paymentsChanged;
+
+    private DataChange() {
+    }
+
+    public static DataChange memberAdded(int memberId) {
+        DataChange change = new DataChange();
+        change.addedMembers.add(memberId);
+        return change;
+    }
+
+    public static DataChange memberStatusChanged(int[] memberIds, String status) {
+        DataChange change = new DataChange();
+        for (int id : memberIds) {
+            change.memberStatus.put(id, status);
+        }
+        return change;
+    }
+
+    public static DataChange paymentAdded(int paymentId) {
+        DataChange change = new DataChange();
+        change.addedPayments.add(paymentId);
+        return change;
+    }
+
+    // Some members changed; which ones is not known
+    public static DataChange membersChanged() {
+        DataChange change = new DataChange();
+        change.membersChanged = true;
+        return change;
+    }
+
+    // Anything may have changed
+    public static DataChange everything() {
+        DataChange change = new DataChange();
+        change.membersChanged = true;
+        change.paymentsChanged = true;
+        return change;
+    }
+
+    // A new change holding this one followed by other
+    public DataChange merge(DataChange other) {
+        DataChange merged = new DataChange();
+        merged.membersChanged = membersChanged || other.membersChanged;
+        merged.paymentsChanged = paymentsChanged || other.paymentsChanged;
+        // Row details are moot once the whole table has to be reloaded
+        if (!merged.membersChanged) {
+            merged.addedMembers.addAll(addedMembers);
+            merged.addedMembers.addAll(other.addedMembers);
+            merged.memberStatus.putAll(memberStatus);
+            merged.memberStatus.putAll(other.memberStatus);
+        }
+        if (!merged.paymentsChanged) {
+            merged.addedPayments.addAll(addedPayments);
+            merged.addedPayments.addAll(other.addedPayments);
+        }
+        return merged;
+    }
+
+    // Member ids inserted, newest first; empty when isMembersChanged()
+    public int[] getAddedMembers() {
+        return addedMembers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // New status per member id; empty when isMembersChanged()
+    public Map<Integer, String> getMemberStatusChanges() {
+        return Collections.unmodifiableMap(memberStatus);
+    }
+
+    public int[] getAddedPayments() {
+        return addedPayments.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Members changed in ways not listed here: reload them
+    public boolean isMembersChanged() {
+        return membersChanged;
+    }
+
+    // Payments changed in ways not listed here: reload them
+    public boolean isPaymentsChanged() {
+        return paymentsChanged;
+    }
+
+    public boolean touchesMembers() {
+        return membersChanged || !addedMembers.isEmpty() || !memberStatus.isEmpty();
+    }
+
+    public boolean touchesPayments() {
+        return paymentsChanged || !addedPayments.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (membersChanged && paymentsChanged) {
+            return "DataChange[everything]";
+        }
+        return "DataChange[" + (membersChanged ? "members" : addedMembers.size() + " members added, "
+                + memberStatus.size() + " status changes") + ", "
+                + (paymentsChanged ? "payments" : addedPayments.size() + " payments added") + "]";
+    }
+}
@@ -0,0 +1,86 @@
+package gymsystem;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Change notification bus for the open forms.
+ *
+ * DatabaseHelper publishes a DataChange after each committed write, and
+ * the writer thread publishes DataChange.everything() when PRAGMA
+ * data_version shows a commit it didn't make (another desk, or a
+ * migration or reset on a maintenance connection). See
+ * WriteQueue.watchDataVersion().
+ *
+ * Changes published within gym.changes.coalesceMillis (default 200) of
+ * each other are merged and delivered once, on the EDT, so a burst of
+ * writes costs each form one update. With no subscribers, publish() does
+ * nothing.
+ */
+public final class DataChanges {
+    private static final Log log = Log.get(DataChanges.class);
+
+    // How often the writer checks data_version; 0 turns cross-process detection off
+    public static final long POLL_MILLIS = Long.getLong("gym.changes.pollMillis", 1000);
+    private static final int COALESCE_MILLIS = Integer.getInteger("gym.changes.coalesceMillis", 200);
+
+    private static final List<Consumer<DataChange>> listeners = new CopyOnWriteArrayList<>();
+    private static final Timer flushTimer = new Timer(COALESCE_MILLIS, evt -> flush());
+    private static final Object lock = new Object();
+    // Merged changes waiting for the timer; guarded by lock
+    private static DataChange pending;
+
+    static {
+        flushTimer.setRepeats(false);
+    }
+
+    private DataChanges() {
+    }
+
+    // listener is called on the EDT; unsubscribe it when its form is disposed
+    public static void subscribe(Consumer<DataChange> listener) {
+        listeners.add(listener);
+    }
+
+    public static void unsubscribe(Consumer<DataChange> listener) {
+        listeners.remove(listener);
+    }
+
+    // Safe to call from any thread; never blocks on the listeners
+    public static void publish(DataChange change) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            if (pending != null) {
+                pending = pending.merge(change);
+                return;
+            }
+            pending = change;
+        }
+        // First change since the last delivery starts the window
+        SwingUtilities.invokeLater(flushTimer::start);
+    }
+
+    private static void flush() {
+        DataChange change;
+        synchronized (lock) {
+            change = pending;
+            pending = null;
+        }
+        if (change == null) {
+            return;
+        }
+        log.debug("Delivering %s", change);
+        for (Consumer<DataChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                log.error(e, "Change listener failed");
+            }
+        }
+    }
+}
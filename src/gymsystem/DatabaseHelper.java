@@ -1,345 +1,856 @@
 package gymsystem;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class DatabaseHelper {
-    private static final String DB_URL = "jdbc:sqlite:gym_database.db";
-    private static Connection conn = null;
+    private static final Log log = Log.get(DatabaseHelper.class);
+    // Benchmarks and load tests point this at a scratch file with -Dgym.db.url
+    private static final String DB_URL = System.getProperty("gym.db.url", "jdbc:sqlite:gym_database.db");
+    private static final int POOL_SIZE = Integer.getInteger("gym.db.poolSize", 4);
+    private static final int READ_POOL_SIZE = Integer.getInteger("gym.db.readers", 4);
+    
+    // Printed on the login screen; change it after the first login
+    private static final String DEFAULT_ADMIN_PASSWORD = "admin123";
+    // Shared by addMember and the CSV importer so both hit the same cached statement
+    static final String INSERT_MEMBER_SQL = "INSERT INTO members(full_name, email, phone, address, age, gender, membership_type, join_date, expiry_date) " +
+                     "VALUES(?,?,?,?,?,?,?,?,?)";
+    private static final StorageProfile storageProfile = StorageProfile.load(StorageProfile.DEFAULT_FILE);
+    // Migrations and maintenance; bulk jobs write through the writer so data_version stays exact
+    private static final ConnectionPool pool = new ConnectionPool(DB_URL, POOL_SIZE, storageProfile);
+    // Queries; read-only WAL connections never wait behind a write
+    private static final ConnectionPool readPool = new ConnectionPool(DB_URL, READ_POOL_SIZE, storageProfile, true);
+    // addMember, addPayment and updateMemberStatus go through this single writer with group commit
+    private static final WriteQueue writer = new WriteQueue(new ConnectionPool(DB_URL, 1, storageProfile));
+    private static final WalCheckpointer checkpointer = new WalCheckpointer(pool, storageProfile);
+    private static final ExpirySweeper expirySweeper = new ExpirySweeper(pool, writer);
+    private static final MemberCache memberCache = new MemberCache();
+
+    // Call counts, errors and latency per operation; see DatabaseMetrics
+    private static final DatabaseMetrics.Operation OP_INITIALIZE_DATABASE = DatabaseMetrics.operation("initializeDatabase");
+    private static final DatabaseMetrics.Operation OP_VALIDATE_LOGIN = DatabaseMetrics.operation("validateLogin");
+    private static final DatabaseMetrics.Operation OP_ADD_MEMBER = DatabaseMetrics.operation("addMember");
+    private static final DatabaseMetrics.Operation OP_GET_ALL_MEMBERS = DatabaseMetrics.operation("getAllMembers");
+    private static final DatabaseMetrics.Operation OP_GET_MEMBER = DatabaseMetrics.operation("getMember");
+    private static final DatabaseMetrics.Operation OP_GET_MEMBERS_PAGE = DatabaseMetrics.operation("getMembersPage");
+    private static final DatabaseMetrics.Operation OP_FIND_MEMBER_ID_AFTER = DatabaseMetrics.operation("findMemberIdAfter");
+    private static final DatabaseMetrics.Operation OP_FIND_MEMBER_IDS_AFTER = DatabaseMetrics.operation("findMemberIdsAfter");
+    private static final DatabaseMetrics.Operation OP_COUNT_MEMBERS = DatabaseMetrics.operation("countMembers");
+    private static final DatabaseMetrics.Operation OP_UPDATE_MEMBER_STATUS = DatabaseMetrics.operation("updateMemberStatus");
+    private static final DatabaseMetrics.Operation OP_UPDATE_MEMBER_STATUS_BATCH = DatabaseMetrics.operation("updateMemberStatusBatch");
+    private static final DatabaseMetrics.Operation OP_ADD_PAYMENT = DatabaseMetrics.operation("addPayment");
+    private static final DatabaseMetrics.Operation OP_GET_ALL_PAYMENTS = DatabaseMetrics.operation("getAllPayments");
+    private static final DatabaseMetrics.Operation OP_FIND_PAYMENTS = DatabaseMetrics.operation("findPayments");
+    private static final DatabaseMetrics.Operation OP_COUNT_PAYMENTS = DatabaseMetrics.operation("countPayments");
+    private static final DatabaseMetrics.Operation OP_GET_DASHBOARD_STATS = DatabaseMetrics.operation("getDashboardStats");
+    private static final DatabaseMetrics.Operation OP_VERIFY_DASHBOARD_STATS = DatabaseMetrics.operation("verifyDashboardStats");
+    private static final DatabaseMetrics.Operation OP_SWEEP_EXPIRED_MEMBERS = DatabaseMetrics.operation("sweepExpiredMembers");
+    private static final DatabaseMetrics.Operation OP_ENSURE_ADMIN_EXISTS = DatabaseMetrics.operation("ensureAdminExists");
+    private static final DatabaseMetrics.Operation OP_RESET_DATABASE = DatabaseMetrics.operation("resetDatabase");
     
     // Add static initializer to load driver
     static {
         try {
             Class.forName("org.sqlite.JDBC");
-            System.out.println("SQLite JDBC driver loaded successfully.");
+            log.debug("SQLite JDBC driver loaded");
         } catch (ClassNotFoundException e) {
-            System.err.println("Failed to load SQLite JDBC driver: " + e.getMessage());
+            log.error("Failed to load SQLite JDBC driver: %s", e.getMessage());
         }
+        log.info("%s", storageProfile);
+        checkpointer.start();
+        // Commits by other desks show up as a data_version change on the writer connection
+        writer.watchDataVersion(DataChanges.POLL_MILLIS, () -> {
+            // Any cached member may be stale
+            memberCache.invalidateAll();
+            DataChanges.publish(DataChange.everything());
+        });
+        writer.start();
+        DatabaseMetrics.registerMBean();
+        // The sweep changes statuses behind the cache's back
+        expirySweeper.setListener(result -> {
+            if (!result.dryRun && result.rows > 0) {
+                memberCache.invalidateAll();
+                DataChanges.publish(DataChange.membersChanged());
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            expirySweeper.stop();
+            checkpointer.stop();
+            writer.stop();
+            log.info("%s", pool);
+            log.info("%s", readPool);
+            log.info("%s", writer);
+            log.info("%s", StatementCache.getStats());
+            log.info("%s", memberCache);
+            pool.close();
+            readPool.close();
+            Log.flush();
+        }, "db-pool-shutdown"));
     }
     
+    // Borrow a pooled connection. Closing it returns it to the pool.
     public static Connection getConnection() throws SQLException {
-        if (conn == null || conn.isClosed()) {
-            conn = DriverManager.getConnection(DB_URL);
-            // Enable foreign keys
-            conn.createStatement().execute("PRAGMA foreign_keys = ON");
+        return pool.borrow();
+    }
+    
+    // Runs a bulk job's write on the writer connection and waits for the commit
+    static <T> T writeAndWait(WriteQueue.Write<T> write) throws SQLException {
+        return writer.submitAndWait(write);
+    }
+    
+    // Borrow a read-only connection for queries. Closing it returns it to the pool.
+    public static Connection getReadConnection() throws SQLException {
+        return readPool.borrow();
+    }
+    
+    public static StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+    
+    // Size, hit ratio and eviction counts of the member cache
+    public static MemberCache getMemberCache() {
+        return memberCache;
+    }
+    
+    // Opened vs reused connection counts, plus the writer's group commit stats
+    public static String getPoolStats() {
+        return pool + "\n" + readPool + "\n" + writer;
+    }
+    
+    // Runs a trivial query on a reader; throws if the database can't be reached
+    public static void checkHealth() throws SQLException {
+        try (Connection c = getReadConnection()) {
+            queryNumber(c, "SELECT 1");
         }
-        return conn;
     }
     
-    public static void initializeDatabase() {
-        try (Connection c = getConnection(); Statement stmt = c.createStatement()) {
-            
-            System.out.println("Creating database tables...");
-            
-            // Create users table (for login)
-            String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "username TEXT UNIQUE NOT NULL," +
-                    "password TEXT NOT NULL," +
-                    "fullname TEXT NOT NULL," +
-                    "email TEXT," +
-                    "user_type TEXT DEFAULT 'Admin')";
-            
-            // Create members table
-            String createMembersTable = "CREATE TABLE IF NOT EXISTS members (" +
-                    "member_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "full_name TEXT NOT NULL," +
-                    "email TEXT," +
-                    "phone TEXT," +
-                    "address TEXT," +
-                    "age INTEGER," +
-                    "gender TEXT," +
-                    "membership_type TEXT," +
-                    "join_date TEXT," +  // Changed from DATE to TEXT for SQLite
-                    "expiry_date TEXT," + // Changed from DATE to TEXT for SQLite
-                    "status TEXT DEFAULT 'ACTIVE')";
-            
-            // Create payments table
-            String createPaymentsTable = "CREATE TABLE IF NOT EXISTS payments (" +
-                    "payment_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "member_id INTEGER," +
-                    "amount REAL," +
-                    "payment_date TEXT," +  // Changed from DATE to TEXT
-                    "payment_type TEXT," +
-                    "month TEXT," +
-                    "status TEXT DEFAULT 'PENDING'," +
-                    "FOREIGN KEY(member_id) REFERENCES members(member_id) ON DELETE CASCADE)";
-            
-            stmt.execute(createUsersTable);
-            System.out.println("✓ Users table created");
-            
-            stmt.execute(createMembersTable);
-            System.out.println("✓ Members table created");
-            
-            stmt.execute(createPaymentsTable);
-            System.out.println("✓ Payments table created");
-            
-            // Insert default admin if not exists - FIXED VERSION
-            try {
-                String insertAdmin = "INSERT OR IGNORE INTO users (username, password, fullname, email, user_type) " +
-                        "VALUES ('admin', 'admin123', 'Administrator', 'admin@gym.com', 'Admin')";
-                int rowsInserted = stmt.executeUpdate(insertAdmin);
-                
-                if (rowsInserted > 0) {
-                    System.out.println("✓ Default admin user created (admin/admin123)");
-                } else {
-                    System.out.println("✓ Admin user already exists");
-                }
-                
-                // Verify admin exists
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE username = 'admin'");
-                if (rs.next() && rs.getInt(1) > 0) {
-                    System.out.println("✓ Admin verification: User 'admin' exists in database");
-                }
-                
-            } catch (SQLException e) {
-                System.err.println("Error creating admin user: " + e.getMessage());
-                // Try alternative method
-                createAdminUserManually();
+    // Prepared statement cache hits vs misses
+    public static String getStatementCacheStats() {
+        return StatementCache.getStats();
+    }
+    
+    // Startup check: one user_version read when the schema is current, otherwise migrate and verify the admin once
+    public static void prepareDatabase() {
+        try (Connection c = getConnection()) {
+            int version = SchemaMigrations.getVersion(c);
+            if (version >= SchemaMigrations.CURRENT_VERSION) {
+                log.info("Database schema is current (v%d)", version);
+                return;
             }
-            
-            System.out.println("Database initialized successfully!");
-            
         } catch (SQLException e) {
-            System.err.println("Error initializing database: " + e.getMessage());
-            e.printStackTrace();
+            log.error(e, "Error reading schema version");
         }
+        initializeDatabase();
+        ensureAdminExists();
     }
     
-    private static void createAdminUserManually() {
-        System.out.println("Trying alternative method to create admin...");
+    public static void initializeDatabase() {
+        long start = System.nanoTime();
         try (Connection c = getConnection()) {
-            // Check if admin exists
-            String checkSql = "SELECT username FROM users WHERE username = 'admin'";
-            Statement checkStmt = c.createStatement();
-            ResultSet rs = checkStmt.executeQuery(checkSql);
-            
-            if (!rs.next()) {
-                // Admin doesn't exist, create it
-                String insertSql = "INSERT INTO users (username, password, fullname, email, user_type) " +
-                        "VALUES (?, ?, ?, ?, ?)";
-                PreparedStatement pstmt = c.prepareStatement(insertSql);
-                pstmt.setString(1, "admin");
-                pstmt.setString(2, "admin123");
-                pstmt.setString(3, "Administrator");
-                pstmt.setString(4, "admin@gym.com");
-                pstmt.setString(5, "Admin");
-                pstmt.executeUpdate();
-                pstmt.close();
-                System.out.println("✓ Admin user created via prepared statement");
-            } else {
-                System.out.println("✓ Admin already exists");
+            int version = SchemaMigrations.getVersion(c);
+            if (version >= SchemaMigrations.CURRENT_VERSION) {
+                // Nothing to create or verify
+                log.info("Database schema is current (v%d)", version);
+                return;
             }
-            checkStmt.close();
-        } catch (SQLException ex) {
-            System.err.println("Failed to create admin: " + ex.getMessage());
+            
+            log.info("Migrating database schema from v%d to v%d", version, SchemaMigrations.CURRENT_VERSION);
+            SchemaMigrations.migrate(c);
+            log.info("Database initialized");
+            
+        } catch (SQLException e) {
+            OP_INITIALIZE_DATABASE.failed(e);
+            log.error(e, "Error initializing database");
+        } finally {
+            OP_INITIALIZE_DATABASE.record(start);
         }
     }
     
     public static boolean validateLogin(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection c = getConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            ResultSet rs = pstmt.executeQuery();
-            boolean result = rs.next();
-            System.out.println("Login attempt for '" + username + "': " + (result ? "SUCCESS" : "FAILED"));
+        long start = System.nanoTime();
+        String sql = "SELECT password, password_salt, password_iterations FROM users WHERE username = ?";
+        try {
+            String stored = null;
+            String salt = null;
+            int iterations = 0;
+            boolean legacy = false;
+            // Only the row is read under the connection; hashing is slow and needs no database
+            try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        stored = rs.getString("password");
+                        salt = rs.getString("password_salt");
+                        iterations = rs.getInt("password_iterations");
+                        legacy = rs.wasNull();
+                    }
+                }
+            }
+            boolean result = false;
+            boolean rehash = false;
+            if (stored != null && legacy) {
+                // Legacy plaintext row
+                result = PasswordHasher.verifyPlaintext(password, stored);
+                rehash = result;
+            } else if (stored != null) {
+                result = PasswordHasher.verify(password, stored, salt, iterations);
+                rehash = result && PasswordHasher.needsRehash(iterations);
+            }
+            if (rehash) {
+                // The login doesn't wait for the new hash to be written
+                PasswordHasher.Hash hash = PasswordHasher.hash(password);
+                writer.submit(w -> {
+                    storePasswordHash(w, username, hash);
+                    return null;
+                }).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error(error, "Could not store new password hash for '%s'", username);
+                    }
+                });
+            }
+            if (result) {
+                log.debug("Login succeeded for '%s'", username);
+            } else {
+                log.info("Login failed for '%s'", username);
+            }
             return result;
         } catch (SQLException e) {
-            System.err.println("Login error for '" + username + "': " + e.getMessage());
+            OP_VALIDATE_LOGIN.failed(e);
+            log.error(e, "Login error for '%s'", username);
             return false;
+        } catch (IllegalArgumentException e) {
+            // Stored hash or salt isn't valid Base64; nothing can match it
+            log.error(e, "Corrupt password hash for '%s'", username);
+            return false;
+        } finally {
+            OP_VALIDATE_LOGIN.record(start);
+        }
+    }
+    
+    private static void storePasswordHash(Connection c, String username, PasswordHasher.Hash hash) throws SQLException {
+        String sql = "UPDATE users SET password = ?, password_salt = ?, password_iterations = ? WHERE username = ?";
+        try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setString(1, hash.hash);
+            pstmt.setString(2, hash.salt);
+            pstmt.setInt(3, hash.iterations);
+            pstmt.setString(4, username);
+            pstmt.executeUpdate();
         }
+        log.info("Password for '%s' stored as PBKDF2 with %d iterations", username, hash.iterations);
     }
     
-    // Add member to database
+    // Add member to database; waits until the writer has committed it
     public static boolean addMember(String fullName, String email, String phone, 
                                     String address, int age, String gender, 
                                     String membershipType, String joinDate, String expiryDate) {
-        String sql = "INSERT INTO members(full_name, email, phone, address, age, gender, membership_type, join_date, expiry_date) " +
-                     "VALUES(?,?,?,?,?,?,?,?,?)";
-        try (Connection c = getConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
-            pstmt.setString(1, fullName);
-            pstmt.setString(2, email);
-            pstmt.setString(3, phone);
-            pstmt.setString(4, address);
-            pstmt.setInt(5, age);
-            pstmt.setString(6, gender);
-            pstmt.setString(7, membershipType);
-            pstmt.setString(8, joinDate);
-            pstmt.setString(9, expiryDate);
-            pstmt.executeUpdate();
-            System.out.println("Member added: " + fullName);
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error adding member: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        return await(addMemberAsync(fullName, email, phone, address, age, gender, membershipType, joinDate, expiryDate)) != null;
+    }
+    
+    // Queues the insert; completes with the new member_id once committed
+    public static CompletableFuture<Integer> addMemberAsync(String fullName, String email, String phone, 
+                                    String address, int age, String gender, 
+                                    String membershipType, String joinDate, String expiryDate) {
+        return write(OP_ADD_MEMBER, "Error adding member", c -> {
+            try (PreparedStatement pstmt = c.prepareStatement(INSERT_MEMBER_SQL)) {
+                pstmt.setString(1, fullName);
+                pstmt.setString(2, email);
+                pstmt.setString(3, phone);
+                pstmt.setString(4, address);
+                pstmt.setInt(5, age);
+                pstmt.setString(6, gender);
+                pstmt.setString(7, membershipType);
+                pstmt.setString(8, joinDate);
+                pstmt.setString(9, expiryDate);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    return keys.next() ? keys.getInt(1) : 0;
+                }
+            }
+        }).thenApply(memberId -> {
+            // Another desk may have reset the database, so a new id can still be in the cache
+            memberCache.invalidate(memberId);
+            DataChanges.publish(DataChange.memberAdded(memberId));
+            log.debug("Member added: %s", fullName);
+            return memberId;
+        });
     }
     
     // Get all members
-    public static List<String[]> getAllMembers() {
-        List<String[]> members = new ArrayList<>();
+    public static List<Member> getAllMembers() {
+        long start = System.nanoTime();
+        List<Member> members = new ArrayList<>();
         String sql = "SELECT * FROM members ORDER BY member_id DESC";
-        try (Connection c = getConnection(); Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                String[] row = new String[11];
-                row[0] = String.valueOf(rs.getInt("member_id"));
-                row[1] = rs.getString("full_name");
-                row[2] = rs.getString("email");
-                row[3] = rs.getString("phone");
-                row[4] = rs.getString("address");
-                row[5] = String.valueOf(rs.getInt("age"));
-                row[6] = rs.getString("gender");
-                row[7] = rs.getString("membership_type");
-                row[8] = rs.getString("join_date");
-                row[9] = rs.getString("expiry_date");
-                row[10] = rs.getString("status");
-                members.add(row);
-            }
-            System.out.println("Retrieved " + members.size() + " members");
+                members.add(readMember(rs));
+            }
+            if (Log.isDebugEnabled()) {
+                log.debug("Retrieved %d members", members.size());
+            }
         } catch (SQLException e) {
-            System.err.println("Error getting members: " + e.getMessage());
-            e.printStackTrace();
+            OP_GET_ALL_MEMBERS.failed(e);
+            log.error(e, "Error getting members");
+        } finally {
+            OP_GET_ALL_MEMBERS.record(start);
         }
         return members;
     }
     
-    // Update member status
+    // One member by id, served from the member cache when possible; null if there is no such member
+    // or the database fails
+    public static Member getMember(int memberId) {
+        try {
+            return readMemberById(memberId);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+    
+    // Same as getMember, but a database failure reaches the caller instead of looking like "no such member"
+    public static Member readMemberById(int memberId) throws SQLException {
+        long start = System.nanoTime();
+        Member member = memberCache.get(memberId);
+        if (member != null) {
+            OP_GET_MEMBER.record(start);
+            return member;
+        }
+        String sql = "SELECT * FROM members WHERE member_id = ?";
+        // Before the read: a write committed during it makes the row unsafe to cache
+        long stamp = memberCache.stamp();
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setInt(1, memberId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    member = readMember(rs);
+                    memberCache.put(member, stamp);
+                }
+            }
+        } catch (SQLException e) {
+            OP_GET_MEMBER.failed(e);
+            log.error(e, "Error getting member %d", memberId);
+            throw e;
+        } finally {
+            OP_GET_MEMBER.record(start);
+        }
+        return member;
+    }
+    
+    // Keyset page: up to pageSize members listed after afterMemberId (newest first).
+    // Pass 0 for the first page, then the last member_id of the previous page. Empty if the database fails.
+    public static List<Member> getMembersPage(int afterMemberId, int pageSize) {
+        try {
+            return readMembersPage(afterMemberId, pageSize);
+        } catch (SQLException e) {
+            return new ArrayList<>();
+        }
+    }
+    
+    // Same as getMembersPage, but a database failure reaches the caller
+    public static List<Member> readMembersPage(int afterMemberId, int pageSize) throws SQLException {
+        long start = System.nanoTime();
+        List<Member> members = new ArrayList<>(pageSize);
+        String sql = "SELECT * FROM members WHERE member_id < ? ORDER BY member_id DESC LIMIT ?";
+        long stamp = memberCache.stamp();
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setInt(1, afterMemberId > 0 ? afterMemberId : Integer.MAX_VALUE);
+            pstmt.setInt(2, pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    members.add(readMember(rs));
+                }
+            }
+            // Pages are what the table shows, so they are what gets looked up next
+            memberCache.putAll(members, stamp);
+        } catch (SQLException e) {
+            OP_GET_MEMBERS_PAGE.failed(e);
+            log.error(e, "Error getting members page");
+            throw e;
+        } finally {
+            OP_GET_MEMBERS_PAGE.record(start);
+        }
+        return members;
+    }
+    
+    // member_id of the row `skip` rows after afterMemberId, or -1 past the end.
+    // Only walks the primary key index, so jumping deep into the list stays cheap.
+    public static int findMemberIdAfter(int afterMemberId, int skip) {
+        long start = System.nanoTime();
+        String sql = "SELECT member_id FROM members WHERE member_id < ? ORDER BY member_id DESC LIMIT 1 OFFSET ?";
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setInt(1, afterMemberId > 0 ? afterMemberId : Integer.MAX_VALUE);
+            pstmt.setInt(2, skip);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        } catch (SQLException e) {
+            OP_FIND_MEMBER_ID_AFTER.failed(e);
+            log.error(e, "Error seeking members");
+            return -1;
+        } finally {
+            OP_FIND_MEMBER_ID_AFTER.record(start);
+        }
+    }
+    
+    // member_ids of `count` rows starting `skip` rows after afterMemberId, in list order; null on error.
+    // Resolves a selection over rows the table never loaded without reading the rows themselves.
+    public static int[] findMemberIdsAfter(int afterMemberId, int skip, int count) {
+        long start = System.nanoTime();
+        String sql = "SELECT member_id FROM members WHERE member_id < ? ORDER BY member_id DESC LIMIT ? OFFSET ?";
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setInt(1, afterMemberId > 0 ? afterMemberId : Integer.MAX_VALUE);
+            pstmt.setInt(2, count);
+            pstmt.setInt(3, skip);
+            int[] ids = new int[count];
+            int n = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids[n++] = rs.getInt(1);
+                }
+            }
+            return n == count ? ids : Arrays.copyOf(ids, n);
+        } catch (SQLException e) {
+            OP_FIND_MEMBER_IDS_AFTER.failed(e);
+            log.error(e, "Error seeking members");
+            return null;
+        } finally {
+            OP_FIND_MEMBER_IDS_AFTER.record(start);
+        }
+    }
+    
+    public static int countMembers() {
+        long start = System.nanoTime();
+        try (Connection c = getReadConnection()) {
+            return (int) queryNumber(c, "SELECT COUNT(*) FROM members");
+        } catch (SQLException e) {
+            OP_COUNT_MEMBERS.failed(e);
+            log.error(e, "Error counting members");
+            return 0;
+        } finally {
+            OP_COUNT_MEMBERS.record(start);
+        }
+    }
+    
+    // Package-private so MemberSearch can map its rows the same way
+    static Member readMember(ResultSet rs) throws SQLException {
+        return new Member(
+                rs.getInt("member_id"),
+                rs.getString("full_name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("address"),
+                rs.getInt("age"),
+                rs.getString("gender"),
+                rs.getString("membership_type"),
+                parseDate(rs.getString("join_date")),
+                parseDate(rs.getString("expiry_date")),
+                rs.getString("status"));
+    }
+    
+    // Update member status; waits until the writer has committed it
     public static boolean updateMemberStatus(int memberId, String status) {
+        Boolean updated = await(updateMemberStatusAsync(memberId, status));
+        return updated != null && updated;
+    }
+    
+    // Queues the update; completes with true once committed if the member exists
+    public static CompletableFuture<Boolean> updateMemberStatusAsync(int memberId, String status) {
         String sql = "UPDATE members SET status = ? WHERE member_id = ?";
-        try (Connection c = getConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
-            pstmt.setString(1, status);
-            pstmt.setInt(2, memberId);
-            int rows = pstmt.executeUpdate();
-            System.out.println("Updated status for member ID " + memberId + " to " + status + " (" + rows + " rows affected)");
+        return write(OP_UPDATE_MEMBER_STATUS, "Error updating member status", c -> {
+            try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                pstmt.setString(1, status);
+                pstmt.setInt(2, memberId);
+                return pstmt.executeUpdate();
+            }
+        }).thenApply(rows -> {
+            memberCache.updateStatus(memberId, status);
+            if (rows > 0) {
+                DataChanges.publish(DataChange.memberStatusChanged(new int[] { memberId }, status));
+            }
+            if (Log.isDebugEnabled()) {
+                log.debug("Updated status for member ID %d to %s (%d rows affected)", memberId, status, rows);
+            }
             return rows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating member status: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        });
+    }
+    
+    // Sets the status of several members in one transaction; returns how many rows changed, or -1 on error
+    public static int updateMemberStatus(int[] memberIds, String status) {
+        if (memberIds.length == 0) {
+            return 0;
         }
+        Integer rows = await(updateMemberStatusAsync(memberIds, status));
+        return rows == null ? -1 : rows;
+    }
+    
+    // Queues the batch as one all-or-nothing write; completes with the number of rows changed
+    public static CompletableFuture<Integer> updateMemberStatusAsync(int[] memberIds, String status) {
+        String sql = "UPDATE members SET status = ? WHERE member_id = ?";
+        int[] ids = memberIds.clone();
+        return write(OP_UPDATE_MEMBER_STATUS_BATCH, "Error updating member status", c -> {
+            try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                for (int id : ids) {
+                    pstmt.setString(1, status);
+                    pstmt.setInt(2, id);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                // Only the ids that matched a row
+                int[] updated = new int[ids.length];
+                int rows = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    // SUCCESS_NO_INFO still means the row was written
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        updated[rows++] = ids[i];
+                    }
+                }
+                return Arrays.copyOf(updated, rows);
+            }
+        }).thenApply(updated -> {
+            for (int id : updated) {
+                memberCache.updateStatus(id, status);
+            }
+            if (updated.length > 0) {
+                DataChanges.publish(DataChange.memberStatusChanged(updated, status));
+            }
+            if (Log.isDebugEnabled()) {
+                log.debug("Updated status for %d members to %s (%d rows affected)", ids.length, status, updated.length);
+            }
+            return updated.length;
+        });
     }
     
-    // Add payment
+    // Add payment; waits until the writer has committed it
     public static boolean addPayment(int memberId, double amount, String paymentDate, 
                                      String paymentType, String month, String status) {
+        return await(addPaymentAsync(memberId, amount, paymentDate, paymentType, month, status)) != null;
+    }
+    
+    // Queues the insert; completes with the new payment_id once committed
+    public static CompletableFuture<Integer> addPaymentAsync(int memberId, double amount, String paymentDate, 
+                                     String paymentType, String month, String status) {
         String sql = "INSERT INTO payments(member_id, amount, payment_date, payment_type, month, status) " +
                      "VALUES(?,?,?,?,?,?)";
-        try (Connection c = getConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
-            pstmt.setInt(1, memberId);
-            pstmt.setDouble(2, amount);
-            pstmt.setString(3, paymentDate);
-            pstmt.setString(4, paymentType);
-            pstmt.setString(5, month);
-            pstmt.setString(6, status);
-            pstmt.executeUpdate();
-            System.out.println("Payment added for member ID " + memberId);
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error adding payment: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        return write(OP_ADD_PAYMENT, "Error adding payment", c -> {
+            try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+                pstmt.setInt(1, memberId);
+                pstmt.setDouble(2, amount);
+                pstmt.setString(3, paymentDate);
+                pstmt.setString(4, paymentType);
+                pstmt.setString(5, month);
+                pstmt.setString(6, status);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    return keys.next() ? keys.getInt(1) : 0;
+                }
+            }
+        }).thenApply(paymentId -> {
+            DataChanges.publish(DataChange.paymentAdded(paymentId));
+            if (Log.isDebugEnabled()) {
+                log.debug("Payment added for member ID %d", memberId);
+            }
+            return paymentId;
+        });
     }
     
     // Get all payments
-    public static List<String[]> getAllPayments() {
-        List<String[]> payments = new ArrayList<>();
+    public static List<Payment> getAllPayments() {
+        long start = System.nanoTime();
+        List<Payment> payments = new ArrayList<>();
         String sql = "SELECT p.*, m.full_name FROM payments p LEFT JOIN members m ON p.member_id = m.member_id ORDER BY p.payment_id DESC";
-        try (Connection c = getConnection(); Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                String[] row = new String[8];
-                row[0] = String.valueOf(rs.getInt("payment_id"));
-                row[1] = String.valueOf(rs.getInt("member_id"));
-                row[2] = rs.getString("full_name");
-                row[3] = String.valueOf(rs.getDouble("amount"));
-                row[4] = rs.getString("payment_date");
-                row[5] = rs.getString("payment_type");
-                row[6] = rs.getString("month");
-                row[7] = rs.getString("status");
-                payments.add(row);
-            }
-            System.out.println("Retrieved " + payments.size() + " payments");
+                payments.add(readPayment(rs));
+            }
+            if (Log.isDebugEnabled()) {
+                log.debug("Retrieved %d payments", payments.size());
+            }
         } catch (SQLException e) {
-            System.err.println("Error getting payments: " + e.getMessage());
-            e.printStackTrace();
+            OP_GET_ALL_PAYMENTS.failed(e);
+            log.error(e, "Error getting payments");
+        } finally {
+            OP_GET_ALL_PAYMENTS.record(start);
         }
         return payments;
     }
     
-    // Get dashboard statistics
+    // Filtered, sorted page of payments; filtering and sorting happen in SQL. Empty if the database fails.
+    public static List<Payment> findPayments(PaymentQuery query) {
+        try {
+            return readPayments(query);
+        } catch (SQLException e) {
+            return new ArrayList<>();
+        }
+    }
+    
+    // Same as findPayments, but a database failure reaches the caller
+    public static List<Payment> readPayments(PaymentQuery query) throws SQLException {
+        long start = System.nanoTime();
+        List<Payment> payments = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT p.*, m.full_name FROM payments p LEFT JOIN members m ON p.member_id = m.member_id"
+                + query.whereClause(params) + query.orderByClause() + " LIMIT ? OFFSET ?";
+        params.add(query.limit);
+        params.add(query.offset);
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            bindAll(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    payments.add(readPayment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            OP_FIND_PAYMENTS.failed(e);
+            log.error(e, "Error finding payments");
+            throw e;
+        } finally {
+            OP_FIND_PAYMENTS.record(start);
+        }
+        return payments;
+    }
+    
+    // Number of payments matching the query's filters (ignores sort and paging); 0 if the database fails
+    public static int countPayments(PaymentQuery query) {
+        try {
+            return readPaymentCount(query);
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
+    // Same as countPayments, but a database failure reaches the caller
+    public static int readPaymentCount(PaymentQuery query) throws SQLException {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM payments p" + query.whereClause(params);
+        try (Connection c = getReadConnection(); PreparedStatement pstmt = c.prepareStatement(sql)) {
+            bindAll(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            OP_COUNT_PAYMENTS.failed(e);
+            log.error(e, "Error counting payments");
+            throw e;
+        } finally {
+            OP_COUNT_PAYMENTS.record(start);
+        }
+    }
+    
+    private static void bindAll(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+    
+    private static Payment readPayment(ResultSet rs) throws SQLException {
+        return new Payment(
+                rs.getInt("payment_id"),
+                rs.getInt("member_id"),
+                rs.getString("full_name"),
+                rs.getDouble("amount"),
+                parseDate(rs.getString("payment_date")),
+                rs.getString("payment_type"),
+                rs.getString("month"),
+                rs.getString("status"));
+    }
+    
+    // Queues a write on the single writer thread; metrics and error logging happen when it completes
+    private static <T> CompletableFuture<T> write(DatabaseMetrics.Operation op, String errorMessage, WriteQueue.Write<T> write) {
+        long start = System.nanoTime();
+        return writer.submit(write).whenComplete((result, error) -> {
+            if (error != null) {
+                op.failed(error instanceof SQLException ? (SQLException) error : new SQLException(error));
+                log.error(error, "%s", errorMessage);
+            }
+            op.record(start);
+        });
+    }
+    
+    // Blocks until a queued write is committed; null if it failed (already logged)
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+    
+    // Dates are stored as yyyy-MM-dd TEXT; anything else reads as null
+    private static LocalDate parseDate(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    // Get dashboard statistics (one row, kept current by triggers); all zeros if the database fails
     public static int[] getDashboardStats() {
+        try {
+            return readDashboardStats();
+        } catch (SQLException e) {
+            return new int[4];
+        }
+    }
+    
+    // Same as getDashboardStats, but a database failure reaches the caller
+    public static int[] readDashboardStats() throws SQLException {
+        long start = System.nanoTime();
         int[] stats = new int[4];
-        try (Connection c = getConnection(); Statement stmt = c.createStatement()) {
-            // Total members
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM members");
-            stats[0] = rs.getInt(1);
-            
-            // Active members
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM members WHERE status = 'ACTIVE'");
-            stats[1] = rs.getInt(1);
-            
-            // Total revenue
-            rs = stmt.executeQuery("SELECT SUM(amount) FROM payments WHERE status = 'PAID'");
-            stats[2] = (int) rs.getDouble(1);
-            
-            // Pending payments
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM payments WHERE status = 'PENDING'");
-            stats[3] = rs.getInt(1);
+        try (Connection c = getReadConnection()) {
+            double[] row = DashboardStats.read(c);
+            if (row == null) {
+                // Summary row missing (database created by an older version); installing it is a write
+                try (Connection w = getConnection()) {
+                    DashboardStats.install(w);
+                    row = DashboardStats.read(w);
+                }
+            }
+            stats[0] = (int) row[0];
+            stats[1] = (int) row[1];
+            stats[2] = (int) row[2];
+            stats[3] = (int) row[3];
             
-            System.out.println("Dashboard stats: " + stats[0] + " members, " + stats[1] + " active, $" + stats[2] + " revenue, " + stats[3] + " pending payments");
+            if (Log.isDebugEnabled()) {
+                log.debug("Dashboard stats: %d members, %d active, $%d revenue, %d pending payments", stats[0], stats[1], stats[2], stats[3]);
+            }
             
         } catch (SQLException e) {
-            System.err.println("Error getting dashboard stats: " + e.getMessage());
-            e.printStackTrace();
+            OP_GET_DASHBOARD_STATS.failed(e);
+            log.error(e, "Error getting dashboard stats");
+            throw e;
+        } finally {
+            OP_GET_DASHBOARD_STATS.record(start);
         }
         return stats;
     }
     
+    // Recompute the dashboard counters in one aggregate pass and report drift; repair=true fixes it
+    public static String verifyDashboardStats(boolean repair) {
+        long start = System.nanoTime();
+        try (Connection c = getConnection()) {
+            return DashboardStats.verify(c, repair);
+        } catch (SQLException e) {
+            OP_VERIFY_DASHBOARD_STATS.failed(e);
+            return "Error verifying dashboard stats: " + e.getMessage();
+        } finally {
+            OP_VERIFY_DASHBOARD_STATS.record(start);
+        }
+    }
+    
+    // Schedules the expiry sweep; call once the schema is migrated
+    public static void startExpirySweeper() {
+        expirySweeper.start();
+    }
+    
+    // Runs one expiry sweep now and returns its report
+    public static String sweepExpiredMembers(boolean dryRun) {
+        long start = System.nanoTime();
+        try {
+            return expirySweeper.sweep(LocalDate.now(), dryRun).toString();
+        } catch (SQLException e) {
+            OP_SWEEP_EXPIRED_MEMBERS.failed(e);
+            return "Error sweeping expired members: " + e.getMessage();
+        } finally {
+            OP_SWEEP_EXPIRED_MEMBERS.record(start);
+        }
+    }
+    
+    // Single-value query through the statement cache
+    private static double queryNumber(Connection c, String sql) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+    
     // FIXED: ensureAdminExists method - remove the "Not supported yet" exception
     public static void ensureAdminExists() {
-        System.out.println("Ensuring admin user exists...");
-        try (Connection c = getConnection()) {
-            // Check if admin exists
-            String checkSql = "SELECT id FROM users WHERE username = 'admin'";
-            Statement stmt = c.createStatement();
-            ResultSet rs = stmt.executeQuery(checkSql);
-            
-            if (!rs.next()) {
-                // Admin doesn't exist, create it
-                String insertSql = "INSERT INTO users (username, password, fullname, email, user_type) " +
-                        "VALUES ('admin', 'admin123', 'Administrator', 'admin@gym.com', 'Admin')";
-                stmt.executeUpdate(insertSql);
-                System.out.println("✓ Admin user created via ensureAdminExists()");
-            } else {
-                System.out.println("✓ Admin user already exists (ID: " + rs.getInt("id") + ")");
+        long start = System.nanoTime();
+        log.debug("Ensuring admin user exists");
+        // Check if admin exists
+        String checkSql = "SELECT id FROM users WHERE username = 'admin'";
+        try {
+            try (Connection c = getConnection(); Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery(checkSql)) {
+                if (rs.next()) {
+                    log.debug("Admin user already exists (ID: %d)", rs.getInt("id"));
+                    return;
+                }
+            }
+            // Admin doesn't exist, create it; hashed before borrowing, the derive is slow
+            PasswordHasher.Hash hash = PasswordHasher.hash(DEFAULT_ADMIN_PASSWORD);
+            try (Connection c = getConnection()) {
+                insertDefaultAdmin(c, hash);
             }
-            
-            stmt.close();
         } catch (SQLException e) {
-            System.err.println("Error ensuring admin exists: " + e.getMessage());
+            OP_ENSURE_ADMIN_EXISTS.failed(e);
+            log.error(e, "Error ensuring admin exists");
+        } finally {
+            OP_ENSURE_ADMIN_EXISTS.record(start);
+        }
+    }
+    
+    // Schema migration step: adds the default admin to a database that has none
+    static void seedDefaultAdmin(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery("SELECT 1 FROM users WHERE username = 'admin'")) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        insertDefaultAdmin(c, PasswordHasher.hash(DEFAULT_ADMIN_PASSWORD));
+    }
+    
+    // The default admin is stored hashed like any other user; does nothing if one already exists
+    private static void insertDefaultAdmin(Connection c, PasswordHasher.Hash hash) throws SQLException {
+        String sql = "INSERT OR IGNORE INTO users (username, password, password_salt, password_iterations, fullname, email, user_type) " +
+                "VALUES ('admin', ?, ?, ?, 'Administrator', 'admin@gym.com', 'Admin')";
+        try (PreparedStatement pstmt = c.prepareStatement(sql)) {
+            pstmt.setString(1, hash.hash);
+            pstmt.setString(2, hash.salt);
+            pstmt.setInt(3, hash.iterations);
+            if (pstmt.executeUpdate() > 0) {
+                log.info("Admin user created");
+            }
         }
     }
     
     // Reset database completely
     public static void resetDatabase() {
-        System.out.println("Resetting database...");
-        try (Connection c = getConnection(); Statement stmt = c.createStatement()) {
-            // Drop tables if they exist
-            stmt.execute("DROP TABLE IF EXISTS payments");
-            stmt.execute("DROP TABLE IF EXISTS members");
-            stmt.execute("DROP TABLE IF EXISTS users");
+        long start = System.nanoTime();
+        log.warn("Resetting database");
+        try {
+            // Drop tables if they exist; the lease goes back before initializeDatabase borrows one
+            try (Connection c = getConnection(); Statement stmt = c.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS dashboard_stats");
+                stmt.execute("DROP TABLE IF EXISTS members_fts");
+                stmt.execute("DROP TABLE IF EXISTS payments");
+                stmt.execute("DROP TABLE IF EXISTS members");
+                stmt.execute("DROP TABLE IF EXISTS users");
+                stmt.execute("PRAGMA user_version = 0");
+            }
+            memberCache.invalidateAll();
             
-            System.out.println("Tables dropped. Recreating...");
+            log.info("Tables dropped, recreating");
             
             // Recreate tables
             initializeDatabase();
+            DataChanges.publish(DataChange.everything());
             
-            System.out.println("Database reset complete!");
+            log.info("Database reset complete");
         } catch (SQLException e) {
-            System.err.println("Error resetting database: " + e.getMessage());
+            OP_RESET_DATABASE.failed(e);
+            log.error(e, "Error resetting database");
+        } finally {
+            OP_RESET_DATABASE.record(start);
         }
     }
     
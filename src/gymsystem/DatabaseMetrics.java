@@ -0,0 +1,226 @@
+package gymsystem;
+
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Call counts, error counts and latency histograms for every DatabaseHelper
+ * operation.
+ *
+ * Each operation is a static Operation handle; a method takes System.nanoTime()
+ * on entry, calls failed(e) in its catch block and record(start) in finally.
+ * Failures caused by SQLITE_BUSY or SQLITE_LOCKED are also counted as busy,
+ * which is what shows lock contention between threads or desks.
+ * That is two atomic increments per call, so the metrics stay on in
+ * production. Read them in DiagnosticsForm or over JMX.
+ */
+public class DatabaseMetrics implements DatabaseMetricsMXBean {
+    private static final Log log = Log.get(DatabaseMetrics.class);
+    public static final String OBJECT_NAME = "gymsystem:type=DatabaseMetrics";
+
+    private static final DatabaseMetrics INSTANCE = new DatabaseMetrics();
+    // Sorted by name so reports and the diagnostics table are stable
+    private static final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+
+    public static final class Operation {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder busy = new LongAdder();
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        public void record(long startNanos) {
+            latency.recordNanos(System.nanoTime() - startNanos);
+        }
+
+        public void failed(SQLException e) {
+            errors.increment();
+            if (isBusy(e)) {
+                busy.increment();
+            }
+        }
+
+        public OperationSnapshot snapshot() {
+            return new OperationSnapshot(name, latency.getCount(), errors.sum(), busy.sum(),
+                    LatencyHistogram.toMillis(latency.getPercentileNanos(50)),
+                    LatencyHistogram.toMillis(latency.getPercentileNanos(95)),
+                    LatencyHistogram.toMillis(latency.getPercentileNanos(99)),
+                    LatencyHistogram.toMillis(latency.getMaxNanos()));
+        }
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+            busy.reset();
+        }
+    }
+
+    // Immutable row for the diagnostics table and JMX; latencies in milliseconds
+    public static final class OperationSnapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final long busy;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+
+        @ConstructorProperties({"name", "calls", "errors", "busy", "p50", "p95", "p99", "max"})
+        public OperationSnapshot(String name, long calls, long errors, long busy, double p50, double p95, double p99, double max) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.busy = busy;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        // Errors that were SQLITE_BUSY or SQLITE_LOCKED
+        public long getBusy() {
+            return busy;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+
+    private DatabaseMetrics() {
+    }
+
+    public static Operation operation(String name) {
+        return operations.computeIfAbsent(name, Operation::new);
+    }
+
+    // SQLITE_BUSY (5) or SQLITE_LOCKED (6), including their extended codes
+    public static boolean isBusy(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                int code = ((SQLException) t).getErrorCode() & 0xff;
+                if (code == 5 || code == 6) {
+                    return true;
+                }
+            }
+            String message = t.getMessage();
+            if (message != null && (message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED")
+                    || message.contains("database is locked"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // SQLITE_CONSTRAINT (19), including its extended codes: the row itself is bad, not the database
+    public static boolean isConstraintViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && (((SQLException) t).getErrorCode() & 0xff) == 19) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && message.contains("SQLITE_CONSTRAINT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static DatabaseMetrics get() {
+        return INSTANCE;
+    }
+
+    // Called once from DatabaseHelper's static setup
+    static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            log.warn("Could not register %s: %s", OBJECT_NAME, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (Operation op : operations.values()) {
+            snapshots.add(op.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public String getPoolStats() {
+        return DatabaseHelper.getPoolStats();
+    }
+
+    @Override
+    public String getStatementCacheStats() {
+        return DatabaseHelper.getStatementCacheStats();
+    }
+
+    @Override
+    public String getMemberCacheStats() {
+        return DatabaseHelper.getMemberCache().toString();
+    }
+
+    @Override
+    public long getDroppedLogMessages() {
+        return Log.getDroppedCount();
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder(String.format("%-26s %8s %6s %6s %9s %9s %9s %9s",
+                "operation", "calls", "errors", "busy", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationSnapshot s : getOperations()) {
+            if (s.getCalls() > 0) {
+                report.append(String.format("%n%-26s %8d %6d %6d %9.2f %9.2f %9.2f %9.2f",
+                        s.getName(), s.getCalls(), s.getErrors(), s.getBusy(), s.getP50(), s.getP95(), s.getP99(), s.getMax()));
+            }
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (Operation op : operations.values()) {
+            op.reset();
+        }
+    }
+}
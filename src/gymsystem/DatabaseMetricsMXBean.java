@@ -0,0 +1,24 @@
+package gymsystem;
+
+import java.util.List;
+
+/**
+ * JMX view of DatabaseMetrics, registered as gymsystem:type=DatabaseMetrics.
+ * Open it with jconsole or VisualVM on a running desk.
+ */
+public interface DatabaseMetricsMXBean {
+
+    List<DatabaseMetrics.OperationSnapshot> getOperations();
+
+    String getPoolStats();
+
+    String getStatementCacheStats();
+
+    String getMemberCacheStats();
+
+    long getDroppedLogMessages();
+
+    String getReport();
+
+    void reset();
+}
@@ -0,0 +1,169 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Marks ACTIVE members whose expiry_date has passed as EXPIRED.
+ *
+ * Candidates are found with a range scan on idx_members_status_expiry
+ * (status = 'ACTIVE' AND expiry_date < today). Each batch is an UPDATE of
+ * at most BATCH_SIZE rows queued on the writer, with a short pause between
+ * batches, so a front-desk write never waits behind the sweep for long and
+ * the writer's data_version watch doesn't take the sweep for another desk.
+ * The dashboard triggers see the status change like any other.
+ *
+ * Settings (system properties): gym.expiry.intervalMinutes (default 60,
+ * 0 disables the schedule) and gym.expiry.dryRun (count only).
+ *
+ * Run once standalone with: java gymsystem.ExpirySweeper [--dry-run]
+ */
+public class ExpirySweeper {
+    private static final Log log = Log.get(ExpirySweeper.class);
+
+    public static final String EXPIRED = "EXPIRED";
+    public static final int BATCH_SIZE = 200;
+    private static final long PAUSE_MILLIS = 50;
+
+    // Empty expiry dates sort below every real date, so exclude them explicitly
+    private static final String WHERE_EXPIRED = "WHERE status = 'ACTIVE' AND expiry_date > '' AND expiry_date < ?";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM members " + WHERE_EXPIRED;
+
+    private static final String EXPIRE_BATCH_SQL = "UPDATE members SET status = '" + EXPIRED + "' " +
+            "WHERE member_id IN (SELECT member_id FROM members " + WHERE_EXPIRED + " LIMIT ?)";
+
+    public static class Result {
+        public final boolean dryRun;
+        public final int rows;
+        public final int batches;
+        public final long elapsedMillis;
+
+        Result(boolean dryRun, int rows, int batches, long elapsedMillis) {
+            this.dryRun = dryRun;
+            this.rows = rows;
+            this.batches = batches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            if (dryRun) {
+                return "Expiry sweep (dry run): " + rows + " members would expire";
+            }
+            return "Expiry sweep: " + rows + " members expired in " + batches + " batches, " + elapsedMillis + " ms";
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final WriteQueue writer;
+    private final long intervalMinutes;
+    private final boolean dryRun;
+    private ScheduledExecutorService scheduler;
+    private volatile Result lastResult;
+    private volatile Consumer<Result> listener;
+
+    // pool serves the dry-run count; batches go through writer
+    public ExpirySweeper(ConnectionPool pool, WriteQueue writer) {
+        this(pool, writer, Long.getLong("gym.expiry.intervalMinutes", 60), Boolean.getBoolean("gym.expiry.dryRun"));
+    }
+
+    public ExpirySweeper(ConnectionPool pool, WriteQueue writer, long intervalMinutes, boolean dryRun) {
+        this.pool = pool;
+        this.writer = writer;
+        this.intervalMinutes = intervalMinutes;
+        this.dryRun = dryRun;
+    }
+
+    // First sweep runs right away, then every intervalMinutes
+    public synchronized void start() {
+        if (scheduler != null || intervalMinutes <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expiry-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                log.info("%s", sweep(LocalDate.now(), dryRun));
+            } catch (SQLException e) {
+                log.error(e, "Expiry sweep failed");
+            }
+        }, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Told about every completed sweep, on the sweeping thread
+    public void setListener(Consumer<Result> listener) {
+        this.listener = listener;
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    // Expires every ACTIVE member whose expiry_date is before today; dryRun only counts them
+    public Result sweep(LocalDate today, boolean dryRun) throws SQLException {
+        long start = System.currentTimeMillis();
+        String cutoff = today.toString();
+        int rows = 0;
+        int batches = 0;
+        if (dryRun) {
+            try (Connection c = pool.borrow(); PreparedStatement pstmt = c.prepareStatement(COUNT_SQL)) {
+                pstmt.setString(1, cutoff);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rows = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        } else {
+            while (!Thread.currentThread().isInterrupted()) {
+                // One writer command per batch so desk writes queue between them
+                int updated = writer.submitAndWait(c -> {
+                    try (PreparedStatement pstmt = c.prepareStatement(EXPIRE_BATCH_SQL)) {
+                        pstmt.setString(1, cutoff);
+                        pstmt.setInt(2, BATCH_SIZE);
+                        return pstmt.executeUpdate();
+                    }
+                });
+                batches++;
+                rows += updated;
+                if (updated < BATCH_SIZE) {
+                    break;
+                }
+                try {
+                    Thread.sleep(PAUSE_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        Result result = new Result(dryRun, rows, batches, System.currentTimeMillis() - start);
+        lastResult = result;
+        Consumer<Result> l = listener;
+        if (l != null) {
+            l.accept(result);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        boolean dryRun = args.length > 0 && "--dry-run".equals(args[0]);
+        DatabaseHelper.initializeDatabase();
+        System.out.println(DatabaseHelper.sweepExpiredMembers(dryRun));
+    }
+}
@@ -0,0 +1,620 @@
+package gymsystem;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Headless HTTP/JSON server over DatabaseHelper, so that one process owns
+ * gym_database.db and the desks reach it over the network instead of
+ * sharing the file.
+ *
+ *   POST /api/login                 {"username", "password"} -> {"token", "expiresInSeconds"}
+ *   GET  /api/health                no token needed; 503 when the database can't be queried
+ *   GET  /api/dashboard
+ *   GET  /api/members?after=&limit= newest first; pass "next" as after for the following page
+ *   GET  /api/members/{id}
+ *   POST /api/members               member fields as in the Add Member form -> 201 {"memberId"}
+ *   PUT  /api/members/{id}/status   {"status": "ACTIVE" | "INACTIVE" | "EXPIRED"}
+ *   GET  /api/payments?offset=&limit=&status=&month=&type=&from=&to=&memberId=&sort=&asc=
+ *   POST /api/payments              {"memberId", "amount", "paymentDate", "paymentType", "month", "status"} -> 201 {"paymentId"}
+ *                                   status is "PAID" or "PENDING" (the default)
+ *
+ * Everything except login and health needs "Authorization: Bearer <token>".
+ * After gym.api.maxLoginFailures (default 5) failed logins in a row for
+ * one username or from one address, further attempts answer 429 for
+ * gym.api.loginLockoutSeconds (default 60).
+ * A failed database read answers 503 if the database was busy and 500
+ * otherwise, never an empty 200.
+ * GET responses carry an ETag and answer a matching If-None-Match with
+ * 304, and bodies over 1 KB are gzipped for clients that accept it.
+ *
+ * The server speaks plain HTTP, so passwords and tokens travel in the
+ * clear. It only listens on 127.0.0.1 unless gym.api.bind says otherwise;
+ * to serve other desks, put it behind a TLS-terminating reverse proxy on
+ * this machine, or on a network no one else can reach.
+ *
+ * Java 8 has no virtual threads, so requests run on a fixed pool of
+ * gym.api.threads threads. Settings: gym.api.port (default 8080),
+ * gym.api.bind (default 127.0.0.1; 0.0.0.0 for all interfaces),
+ * gym.api.threads (default 16), gym.api.sessionMinutes (default 480).
+ *
+ * Run with: java gymsystem.GymApiServer [port]
+ */
+public class GymApiServer {
+    private static final Log log = Log.get(GymApiServer.class);
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 500;
+    private static final long WRITE_TIMEOUT_SECONDS = 15;
+    private static final int MAX_LOGIN_FAILURES = Integer.getInteger("gym.api.maxLoginFailures", 5);
+    private static final long LOGIN_LOCKOUT_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("gym.api.loginLockoutSeconds", 60));
+    private static final List<String> STATUSES = Arrays.asList("ACTIVE", "INACTIVE", "EXPIRED");
+    private static final List<String> PAYMENT_STATUSES = Arrays.asList("PAID", "PENDING");
+    // Same order as PaymentQuery's sort columns
+    private static final List<String> PAYMENT_SORTS = Arrays.asList(
+            "paymentId", "memberId", "memberName", "amount", "paymentDate", "paymentType", "month", "status");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long sessionMillis;
+    private final SecureRandom random = new SecureRandom();
+    // token -> expiry time
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    // "user:<name>" or "ip:<address>" -> recent failed logins; guarded by itself
+    private final Map<String, LoginFailures> loginFailures = new HashMap<>();
+
+    // Turned into a JSON error response
+    static final class ApiException extends Exception {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Failed logins since the last success, forgotten after a quiet lockout period
+    private static final class LoginFailures {
+        int count;
+        long lastFailure;
+        long lockedUntil;
+    }
+
+    public GymApiServer(String bind, int port, int threads, long sessionMinutes) throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "api-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.sessionMillis = TimeUnit.MINUTES.toMillis(sessionMinutes);
+        InetSocketAddress address = bind == null || bind.isEmpty() ? new InetSocketAddress(port) : new InetSocketAddress(bind, port);
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/api/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("gym.api.port", 8080);
+        // So the first login doesn't pay for it on a request thread
+        PasswordHasher.calibrateInBackground();
+        DatabaseHelper.prepareDatabase();
+        DatabaseHelper.startExpirySweeper();
+        GymApiServer api = new GymApiServer(System.getProperty("gym.api.bind", "127.0.0.1"), port,
+                Integer.getInteger("gym.api.threads", 16), Long.getLong("gym.api.sessionMinutes", 480));
+        api.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(api::stop, "api-shutdown"));
+    }
+
+    public void start() {
+        server.start();
+        log.info("API server listening on %s", server.getAddress());
+        if (!server.getAddress().getAddress().isLoopbackAddress()) {
+            log.warn("The API is reachable from the network over plain HTTP; serve it through TLS");
+        }
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            String[] parts = path.substring("/api/".length()).split("/");
+            String method = ex.getRequestMethod();
+            Map<String, String> params = queryParams(ex.getRequestURI().getRawQuery());
+
+            if (parts[0].equals("login")) {
+                requireMethod(method, "POST");
+                login(ex);
+                return;
+            }
+            if (parts[0].equals("health")) {
+                health(ex);
+                return;
+            }
+            requireSession(ex);
+            switch (parts[0]) {
+                case "dashboard":
+                    requireMethod(method, "GET");
+                    dashboard(ex);
+                    return;
+                case "members":
+                    if (parts.length == 1) {
+                        if (method.equals("POST")) {
+                            addMember(ex);
+                        } else {
+                            requireMethod(method, "GET");
+                            membersPage(ex, params);
+                        }
+                        return;
+                    }
+                    int memberId = intPath(parts[1]);
+                    if (parts.length == 2) {
+                        requireMethod(method, "GET");
+                        member(ex, memberId);
+                        return;
+                    }
+                    if (parts.length == 3 && parts[2].equals("status")) {
+                        requireMethod(method, "PUT");
+                        updateStatus(ex, memberId);
+                        return;
+                    }
+                    break;
+                case "payments":
+                    if (parts.length == 1) {
+                        if (method.equals("POST")) {
+                            addPayment(ex);
+                        } else {
+                            requireMethod(method, "GET");
+                            payments(ex, params);
+                        }
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            throw new ApiException(404, "No such endpoint: " + path);
+        } catch (ApiException e) {
+            sendError(ex, e.status, e.getMessage());
+        } catch (SQLException e) {
+            // DatabaseHelper logged the details; clients only learn that it failed
+            log.warn("API request %s %s failed: %s", ex.getRequestMethod(), ex.getRequestURI(), e.getMessage());
+            if (DatabaseMetrics.isBusy(e)) {
+                sendError(ex, 503, "The database is busy; try again");
+            } else {
+                sendError(ex, 500, "Database error");
+            }
+        } catch (RuntimeException e) {
+            log.error(e, "API request %s %s failed", ex.getRequestMethod(), ex.getRequestURI());
+            sendError(ex, 500, "Internal server error");
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void login(HttpExchange ex) throws IOException, ApiException, SQLException {
+        Map<String, Object> body = readBody(ex);
+        String username = string(body, "username", true);
+        String password = string(body, "password", true);
+        String userKey = "user:" + username.toLowerCase(Locale.ROOT);
+        String addressKey = "ip:" + ex.getRemoteAddress().getAddress().getHostAddress();
+        // Refused before the password derive, so a lockout costs no CPU
+        long wait = loginLockout(userKey, addressKey);
+        if (wait > 0) {
+            ex.getResponseHeaders().set("Retry-After", String.valueOf(TimeUnit.MILLISECONDS.toSeconds(wait) + 1));
+            throw new ApiException(429, "Too many failed logins; try again later");
+        }
+        if (!DatabaseHelper.validateLogin(username, password)) {
+            // validateLogin can't tell a wrong password from a failed query
+            DatabaseHelper.checkHealth();
+            loginFailed(userKey, addressKey);
+            throw new ApiException(401, "Invalid username or password");
+        }
+        synchronized (loginFailures) {
+            loginFailures.remove(userKey);
+        }
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = System.currentTimeMillis();
+        sessions.put(token, now + sessionMillis);
+        // Expired sessions are cleared here rather than by a timer
+        sessions.values().removeIf(expiry -> expiry < now);
+        sendJson(ex, 200, new Json.Writer().beginObject()
+                .field("token", token)
+                .field("expiresInSeconds", TimeUnit.MILLISECONDS.toSeconds(sessionMillis))
+                .endObject().toString());
+    }
+
+    // Milliseconds until any of keys may try to log in again; 0 if none is locked out
+    private long loginLockout(String... keys) {
+        long now = System.currentTimeMillis();
+        long wait = 0;
+        synchronized (loginFailures) {
+            for (String key : keys) {
+                LoginFailures f = loginFailures.get(key);
+                if (f != null) {
+                    wait = Math.max(wait, f.lockedUntil - now);
+                }
+            }
+        }
+        return wait;
+    }
+
+    private void loginFailed(String... keys) {
+        long now = System.currentTimeMillis();
+        synchronized (loginFailures) {
+            // Stale entries are cleared here rather than by a timer
+            loginFailures.values().removeIf(f -> f.lockedUntil < now && f.lastFailure + LOGIN_LOCKOUT_MILLIS < now);
+            for (String key : keys) {
+                LoginFailures f = loginFailures.computeIfAbsent(key, k -> new LoginFailures());
+                f.lastFailure = now;
+                if (++f.count >= MAX_LOGIN_FAILURES) {
+                    f.count = 0;
+                    f.lockedUntil = now + LOGIN_LOCKOUT_MILLIS;
+                    log.warn("Too many failed logins for %s; locked out for %d s", key, TimeUnit.MILLISECONDS.toSeconds(LOGIN_LOCKOUT_MILLIS));
+                }
+            }
+        }
+    }
+
+    private void requireSession(HttpExchange ex) throws ApiException {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new ApiException(401, "Missing bearer token; POST /api/login first");
+        }
+        Long expiry = sessions.get(header.substring("Bearer ".length()).trim());
+        if (expiry == null || expiry < System.currentTimeMillis()) {
+            throw new ApiException(401, "Session expired; log in again");
+        }
+    }
+
+    private void health(HttpExchange ex) throws IOException {
+        try {
+            DatabaseHelper.checkHealth();
+        } catch (SQLException e) {
+            log.warn("Health check failed: %s", e.getMessage());
+            sendJson(ex, 503, new Json.Writer().beginObject().field("status", "unavailable").endObject().toString());
+            return;
+        }
+        sendJson(ex, 200, new Json.Writer().beginObject().field("status", "ok").endObject().toString());
+    }
+
+    private void dashboard(HttpExchange ex) throws IOException, SQLException {
+        int[] stats = DatabaseHelper.readDashboardStats();
+        sendJson(ex, 200, new Json.Writer().beginObject()
+                .field("totalMembers", stats[0])
+                .field("activeMembers", stats[1])
+                .field("revenue", stats[2])
+                .field("pendingPayments", stats[3])
+                .endObject().toString());
+    }
+
+    private void membersPage(HttpExchange ex, Map<String, String> params) throws IOException, ApiException, SQLException {
+        int after = intParam(params, "after", 0);
+        int limit = clampLimit(intParam(params, "limit", DEFAULT_PAGE));
+        List<Member> members = DatabaseHelper.readMembersPage(after, limit);
+        Json.Writer json = new Json.Writer().beginObject().name("members").beginArray();
+        for (Member m : members) {
+            writeMember(json, m);
+        }
+        json.endArray();
+        // Keyset paging: the last id of this page is where the next one starts
+        json.field("next", members.size() == limit ? String.valueOf(members.get(members.size() - 1).getMemberId()) : null);
+        sendJson(ex, 200, json.endObject().toString());
+    }
+
+    private void member(HttpExchange ex, int memberId) throws IOException, ApiException, SQLException {
+        Member m = DatabaseHelper.readMemberById(memberId);
+        if (m == null) {
+            throw new ApiException(404, "No member " + memberId);
+        }
+        Json.Writer json = new Json.Writer();
+        writeMember(json, m);
+        sendJson(ex, 200, json.toString());
+    }
+
+    private void addMember(HttpExchange ex) throws IOException, ApiException {
+        Map<String, Object> body = readBody(ex);
+        String fullName = string(body, "fullName", true);
+        String email = string(body, "email", true);
+        int memberId = await(DatabaseHelper.addMemberAsync(fullName, email,
+                string(body, "phone", false), string(body, "address", false),
+                (int) number(body, "age", 0), string(body, "gender", false),
+                string(body, "membershipType", false),
+                date(body, "joinDate"), date(body, "expiryDate")));
+        sendJson(ex, 201, new Json.Writer().beginObject().field("memberId", memberId).endObject().toString());
+    }
+
+    private void updateStatus(HttpExchange ex, int memberId) throws IOException, ApiException {
+        String status = string(readBody(ex), "status", true).toUpperCase();
+        if (!STATUSES.contains(status)) {
+            throw new ApiException(400, "status must be one of " + STATUSES);
+        }
+        if (!await(DatabaseHelper.updateMemberStatusAsync(memberId, status))) {
+            throw new ApiException(404, "No member " + memberId);
+        }
+        sendJson(ex, 200, new Json.Writer().beginObject().field("memberId", memberId).field("status", status).endObject().toString());
+    }
+
+    private void payments(HttpExchange ex, Map<String, String> params) throws IOException, ApiException, SQLException {
+        PaymentQuery query = new PaymentQuery();
+        query.status = params.get("status");
+        query.month = params.get("month");
+        query.paymentType = params.get("type");
+        query.fromDate = checkDate(params.get("from"), "from");
+        query.toDate = checkDate(params.get("to"), "to");
+        query.memberId = intParam(params, "memberId", 0);
+        String sort = params.get("sort");
+        if (sort != null) {
+            query.sortColumn = PAYMENT_SORTS.indexOf(sort);
+            if (query.sortColumn < 0) {
+                throw new ApiException(400, "sort must be one of " + PAYMENT_SORTS);
+            }
+        }
+        query.ascending = Boolean.parseBoolean(params.get("asc"));
+        query.offset = Math.max(0, intParam(params, "offset", 0));
+        query.limit = clampLimit(intParam(params, "limit", DEFAULT_PAGE));
+
+        int total = DatabaseHelper.readPaymentCount(query);
+        List<Payment> payments = DatabaseHelper.readPayments(query);
+        Json.Writer json = new Json.Writer().beginObject()
+                .field("total", total)
+                .field("offset", query.offset)
+                .field("limit", query.limit)
+                .name("payments").beginArray();
+        for (Payment p : payments) {
+            json.beginObject()
+                    .field("paymentId", p.getPaymentId())
+                    .field("memberId", p.getMemberId())
+                    .field("memberName", p.getMemberName())
+                    .field("amount", p.getAmount())
+                    .field("paymentDate", p.getPaymentDate())
+                    .field("paymentType", p.getPaymentType())
+                    .field("month", p.getMonth())
+                    .field("status", p.getStatus())
+                    .endObject();
+        }
+        sendJson(ex, 200, json.endArray().endObject().toString());
+    }
+
+    private void addPayment(HttpExchange ex) throws IOException, ApiException {
+        Map<String, Object> body = readBody(ex);
+        int memberId = (int) number(body, "memberId", -1);
+        if (memberId <= 0) {
+            throw new ApiException(400, "memberId is required");
+        }
+        String status = body.containsKey("status") ? string(body, "status", true).toUpperCase() : "PENDING";
+        if (!PAYMENT_STATUSES.contains(status)) {
+            throw new ApiException(400, "status must be one of " + PAYMENT_STATUSES);
+        }
+        int paymentId = await(DatabaseHelper.addPaymentAsync(memberId, number(body, "amount", 0),
+                date(body, "paymentDate"), string(body, "paymentType", false),
+                string(body, "month", false), status));
+        sendJson(ex, 201, new Json.Writer().beginObject().field("paymentId", paymentId).endObject().toString());
+    }
+
+    private static void writeMember(Json.Writer json, Member m) {
+        json.beginObject()
+                .field("memberId", m.getMemberId())
+                .field("fullName", m.getFullName())
+                .field("email", m.getEmail())
+                .field("phone", m.getPhone())
+                .field("address", m.getAddress())
+                .field("age", m.getAge())
+                .field("gender", m.getGender())
+                .field("membershipType", m.getMembershipType())
+                .field("joinDate", m.getJoinDate())
+                .field("expiryDate", m.getExpiryDate())
+                .field("status", m.getStatus())
+                .endObject();
+    }
+
+    // Waits for a queued write; failures were already logged by DatabaseHelper
+    private static <T> T await(Future<T> write) throws ApiException {
+        try {
+            return write.get(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new ApiException(503, "The database is busy; the write may still complete");
+        } catch (ExecutionException e) {
+            throw new ApiException(500, "Database error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Interrupted");
+        }
+    }
+
+    private void sendJson(HttpExchange ex, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        Headers request = ex.getRequestHeaders();
+        Headers response = ex.getResponseHeaders();
+        response.set("Content-Type", "application/json; charset=utf-8");
+        if (status == 200 && ex.getRequestMethod().equals("GET")) {
+            // Clients revalidate every time; an unchanged answer costs a 304 with no body
+            String etag = etag(body);
+            response.set("ETag", etag);
+            response.set("Cache-Control", "no-cache");
+            String ifNoneMatch = request.getFirst("If-None-Match");
+            if (ifNoneMatch != null && (ifNoneMatch.equals(etag) || ifNoneMatch.equals("W/" + etag))) {
+                ex.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        String accept = request.getFirst("Accept-Encoding");
+        if (body.length >= GZIP_MIN_BYTES && accept != null && accept.contains("gzip")) {
+            ByteArrayOutputStream zipped = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(zipped)) {
+                gzip.write(body);
+            }
+            body = zipped.toByteArray();
+            response.set("Content-Encoding", "gzip");
+        }
+        response.set("Vary", "Accept-Encoding");
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void sendError(HttpExchange ex, int status, String message) throws IOException {
+        sendJson(ex, status, new Json.Writer().beginObject().field("error", message).endObject().toString());
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder tag = new StringBuilder("\"");
+            // 128 bits is plenty to tell two responses apart
+            for (int i = 0; i < 16; i++) {
+                tag.append(String.format("%02x", digest[i]));
+            }
+            return tag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException, ApiException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        try (InputStream in = ex.getRequestBody()) {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                buffer.write(chunk, 0, n);
+                if (buffer.size() > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body too large");
+                }
+            }
+        }
+        try {
+            return Json.parseObject(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Bad JSON: " + e.getMessage());
+        }
+    }
+
+    private static void requireMethod(String method, String expected) throws ApiException {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "Use " + expected);
+        }
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                params.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                // Skip malformed pairs
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) throws ApiException {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+
+    private static int intPath(String segment) throws ApiException {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "No such member: " + segment);
+        }
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE));
+    }
+
+    private static String string(Map<String, Object> body, String name, boolean required) throws ApiException {
+        Object value = body.get(name);
+        if (value == null || value.toString().trim().isEmpty()) {
+            if (required) {
+                throw new ApiException(400, name + " is required");
+            }
+            return "";
+        }
+        if (!(value instanceof String)) {
+            throw new ApiException(400, name + " must be a string");
+        }
+        return ((String) value).trim();
+    }
+
+    private static double number(Map<String, Object> body, String name, double defaultValue) throws ApiException {
+        Object value = body.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Double)) {
+            throw new ApiException(400, name + " must be a number");
+        }
+        return (Double) value;
+    }
+
+    // Optional yyyy-MM-dd field; "" when absent
+    private static String date(Map<String, Object> body, String name) throws ApiException {
+        return checkDate(string(body, name, false), name);
+    }
+
+    private static String checkDate(String value, String name) throws ApiException {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be a yyyy-MM-dd date");
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package gymsystem;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless load test: N simulated front desks drive DatabaseHelper
+ * concurrently with a weighted mix of logins, member lookups, new members,
+ * payments and dashboard refreshes.
+ *
+ * Each desk runs open-loop at a fixed rate. Response time is measured from
+ * when the operation was due, not when it started, so time spent waiting
+ * behind a slow call shows up instead of silently lowering the rate;
+ * service time is the call alone. Error and SQLITE_BUSY/LOCKED counts come
+ * from DatabaseMetrics, since DatabaseHelper reports failures by logging.
+ *
+ * Give several desk counts (--desks 1,2,4,8) to see where throughput stops
+ * growing; -Dgym.db.poolSize changes the connection pool size. To simulate
+ * separate client processes, start several instances against the same
+ * --db file.
+ *
+ * Unless --db is given, the run uses a scratch copy of a
+ * BenchmarkDataGenerator database, so the real gym_database.db is never
+ * touched.
+ *
+ * Run with: java gymsystem.LoadTest [--desks 1,4,8] [--rate opsPerSecondPerDesk, 0 = flat out]
+ *           [--seconds 30] [--warmup 5] [--members 10000] [--payments 3] [--db file]
+ *           [--mix login=2,lookup=45,addMember=10,addPayment=15,dashboard=28]
+ */
+public class LoadTest {
+
+    enum Op {
+        LOGIN("login", "validateLogin", 2),
+        LOOKUP("lookup", "getMember", 45),
+        ADD_MEMBER("addMember", "addMember", 10),
+        ADD_PAYMENT("addPayment", "addPayment", 15),
+        DASHBOARD("dashboard", "getDashboardStats", 28);
+
+        final String key;
+        final String metricName;
+        final int defaultWeight;
+
+        Op(String key, String metricName, int defaultWeight) {
+            this.key = key;
+            this.metricName = metricName;
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private static final class OpStats {
+        final LatencyHistogram service = new LatencyHistogram();
+        final LatencyHistogram response = new LatencyHistogram();
+    }
+
+    private final int desks;
+    private final double ratePerDesk;
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final Map<Op, Integer> mix;
+    private final int totalWeight;
+    private final int memberIdRange;
+    private final Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+    private volatile boolean recording;
+    private volatile boolean stopping;
+
+    LoadTest(int desks, double ratePerDesk, int warmupSeconds, int seconds, Map<Op, Integer> mix, int memberIdRange) {
+        this.desks = desks;
+        this.ratePerDesk = ratePerDesk;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.measureNanos = TimeUnit.SECONDS.toNanos(seconds);
+        this.mix = mix;
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        this.totalWeight = total;
+        this.memberIdRange = Math.max(1, memberIdRange);
+        for (Op op : Op.values()) {
+            stats.put(op, new OpStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> deskCounts = new ArrayList<>();
+        deskCounts.add(4);
+        double rate = 20;
+        int seconds = 30;
+        int warmup = 5;
+        int members = 10_000;
+        int payments = 3;
+        String db = null;
+        Map<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) {
+            mix.put(op, op.defaultWeight);
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--desks":
+                    deskCounts.clear();
+                    for (String n : value.split(",")) {
+                        deskCounts.add(Integer.parseInt(n.trim()));
+                    }
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--members":
+                    members = Integer.parseInt(value);
+                    break;
+                case "--payments":
+                    payments = Integer.parseInt(value);
+                    break;
+                case "--db":
+                    db = value;
+                    break;
+                case "--mix":
+                    parseMix(value, mix);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i] + "; see the LoadTest class comment for usage");
+                    return;
+            }
+            i++;
+        }
+
+        File database;
+        if (db != null) {
+            database = new File(db);
+            System.out.println("Using " + database + " directly; the run adds members and payments to it");
+        } else {
+            File dir = new File(System.getProperty("gym.bench.dataDir", "build" + File.separator + "loadtest"));
+            File template = BenchmarkDataGenerator.cached(dir, members, payments,
+                    BenchmarkDataGenerator.DEFAULT_SEED, PasswordHasher.MIN_ITERATIONS);
+            database = File.createTempFile("gym-load-", ".db", dir);
+            for (String suffix : new String[] { "", "-wal", "-shm" }) {
+                new File(database.getPath() + suffix).deleteOnExit();
+            }
+            Files.copy(template.toPath(), database.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Must be set before DatabaseHelper is first touched
+        System.setProperty("gym.db.url", "jdbc:sqlite:" + database.getPath());
+        DatabaseHelper.prepareDatabase();
+        PasswordHasher.getCalibratedIterations();
+        int memberIdRange = DatabaseHelper.countMembers();
+
+        System.out.println(String.format("Load test on %s: %d members, rate %s per desk, %d s warm-up + %d s, mix %s",
+                database, memberIdRange, rate > 0 ? rate + " ops/s" : "unlimited", warmup, seconds, mix));
+        List<String> summary = new ArrayList<>();
+        for (int desks : deskCounts) {
+            LoadTest test = new LoadTest(desks, rate, warmup, seconds, mix, memberIdRange);
+            summary.add(test.run());
+        }
+        System.out.println();
+        System.out.println(String.format("%6s %10s %10s %10s %8s %8s", "desks", "ops/s", "p50 ms", "p99 ms", "errors", "busy"));
+        for (String line : summary) {
+            System.out.println(line);
+        }
+        System.out.println(DatabaseHelper.getPoolStats());
+        System.out.println(DatabaseHelper.getStatementCacheStats());
+        System.exit(0);
+    }
+
+    private static void parseMix(String value, Map<Op, Integer> mix) {
+        for (Op op : Op.values()) {
+            mix.put(op, 0);
+        }
+        for (String part : value.split(",")) {
+            String[] kv = part.split("=");
+            Op match = null;
+            for (Op op : Op.values()) {
+                if (op.key.equalsIgnoreCase(kv[0].trim())) {
+                    match = op;
+                }
+            }
+            if (match == null || kv.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry '" + part + "'");
+            }
+            mix.put(match, Integer.parseInt(kv[1].trim()));
+        }
+    }
+
+    // Runs one round and returns its summary line
+    String run() throws InterruptedException {
+        DatabaseMetrics.get().reset();
+        CountDownLatch done = new CountDownLatch(desks);
+        long start = System.nanoTime();
+        for (int d = 0; d < desks; d++) {
+            // Seeded per desk so every round replays the same operation sequence
+            Random random = new Random(BenchmarkDataGenerator.DEFAULT_SEED + d);
+            Thread t = new Thread(() -> {
+                try {
+                    desk(random, start);
+                } finally {
+                    done.countDown();
+                }
+            }, "desk-" + (d + 1));
+            t.setDaemon(true);
+            t.start();
+        }
+        LockSupport.parkNanos(warmupNanos);
+        // Busy counts from the warm-up are dropped along with its latencies
+        DatabaseMetrics.get().reset();
+        recording = true;
+        long measureStart = System.nanoTime();
+        LockSupport.parkNanos(measureNanos);
+        recording = false;
+        double elapsed = (System.nanoTime() - measureStart) / 1e9;
+        Map<String, DatabaseMetrics.OperationSnapshot> metrics = metricsByName();
+        stopping = true;
+        done.await();
+        return report(elapsed, metrics);
+    }
+
+    private void desk(Random random, long start) {
+        long interval = ratePerDesk > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerDesk) : 0;
+        // Desks start spread over one interval instead of all at once
+        long due = start + (interval > 0 ? (long) (random.nextDouble() * interval) : 0);
+        while (!stopping) {
+            long now = System.nanoTime();
+            if (due > now) {
+                LockSupport.parkNanos(due - now);
+                continue;
+            }
+            Op op = pick(random);
+            long begin = System.nanoTime();
+            execute(op, random);
+            long end = System.nanoTime();
+            if (recording) {
+                OpStats s = stats.get(op);
+                s.service.recordNanos(end - begin);
+                s.response.recordNanos(end - (interval > 0 ? due : begin));
+            }
+            due += interval;
+        }
+    }
+
+    private Op pick(Random random) {
+        int r = random.nextInt(totalWeight);
+        for (Map.Entry<Op, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        return Op.LOOKUP;
+    }
+
+    private void execute(Op op, Random random) {
+        switch (op) {
+            case LOGIN:
+                DatabaseHelper.validateLogin(BenchmarkDataGenerator.ADMIN_USER, BenchmarkDataGenerator.ADMIN_PASSWORD);
+                break;
+            case LOOKUP:
+                DatabaseHelper.getMember(1 + random.nextInt(memberIdRange));
+                break;
+            case ADD_MEMBER:
+                int n = random.nextInt(1_000_000);
+                LocalDate today = LocalDate.now();
+                DatabaseHelper.addMember("Load Member " + n, "load" + n + "@example.com", "555-000-0000",
+                        "1 Load St", 30, "Other", "Monthly", today.toString(), today.plusMonths(1).toString());
+                break;
+            case ADD_PAYMENT:
+                LocalDate paid = LocalDate.now();
+                DatabaseHelper.addPayment(1 + random.nextInt(memberIdRange), 50, paid.toString(), "Cash",
+                        paid.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH), "PENDING");
+                break;
+            case DASHBOARD:
+                DatabaseHelper.getDashboardStats();
+                break;
+            default:
+                throw new IllegalStateException("Unhandled " + op);
+        }
+    }
+
+    private static Map<String, DatabaseMetrics.OperationSnapshot> metricsByName() {
+        Map<String, DatabaseMetrics.OperationSnapshot> metrics = new HashMap<>();
+        for (DatabaseMetrics.OperationSnapshot s : DatabaseMetrics.get().getOperations()) {
+            metrics.put(s.getName(), s);
+        }
+        return metrics;
+    }
+
+    private String report(double elapsedSeconds, Map<String, DatabaseMetrics.OperationSnapshot> metrics) {
+        System.out.println();
+        System.out.println(String.format("== %d desk%s ==", desks, desks == 1 ? "" : "s"));
+        System.out.println(String.format("%-11s %8s %9s %11s %11s %10s %10s %10s %10s %7s %6s",
+                "operation", "calls", "ops/s", "svc p50 ms", "svc p99 ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "busy"));
+        LatencyHistogram all = new LatencyHistogram();
+        long calls = 0;
+        long errors = 0;
+        long busy = 0;
+        for (Op op : Op.values()) {
+            OpStats s = stats.get(op);
+            long count = s.response.getCount();
+            if (count == 0) {
+                continue;
+            }
+            DatabaseMetrics.OperationSnapshot m = metrics.get(op.metricName);
+            long opErrors = m == null ? 0 : m.getErrors();
+            long opBusy = m == null ? 0 : m.getBusy();
+            System.out.println(String.format("%-11s %8d %9.1f %11.2f %11.2f %10.2f %10.2f %10.2f %10.2f %7d %6d",
+                    op.key, count, count / elapsedSeconds,
+                    ms(s.service, 50), ms(s.service, 99),
+                    ms(s.response, 50), ms(s.response, 95), ms(s.response, 99),
+                    LatencyHistogram.toMillis(s.response.getMaxNanos()),
+                    opErrors, opBusy));
+            calls += count;
+            errors += opErrors;
+            busy += opBusy;
+            all.add(s.response);
+        }
+        return String.format("%6d %10.1f %10.2f %10.2f %8d %8d", desks, calls / elapsedSeconds,
+                ms(all, 50), ms(all, 99), errors, busy);
+    }
+
+    private static double ms(LatencyHistogram h, double percentile) {
+        return LatencyHistogram.toMillis(h.getPercentileNanos(percentile));
+    }
+}
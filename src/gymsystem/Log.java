@@ -0,0 +1,284 @@
+package gymsystem;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Small leveled logger that keeps I/O off the calling thread.
+ *
+ * A call below the threshold is dropped after one comparison, but the
+ * varargs array and any boxed arguments have already been allocated at the
+ * call site; guard hot debug calls with isDebugEnabled(). Anything above
+ * the threshold is put into a lock-free ring buffer and formatted and written later by the
+ * "log-writer" daemon thread, so a database call never waits on the
+ * console or disk. If the buffer is full the message is dropped and
+ * counted rather than blocking the caller.
+ *
+ * Messages use String.format placeholders, filled in on the writer thread.
+ * Output goes to a rolling file and, unless disabled, the console.
+ *
+ * Settings (system properties): gym.log.level (DEBUG, INFO, WARN, ERROR;
+ * default INFO), gym.log.file (default logs/gym.log), gym.log.maxBytes
+ * (default 5 MB), gym.log.files (rolled files kept, default 5) and
+ * gym.log.console (default true).
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 8192; // power of two
+    private static final long IDLE_PARK_NANOS = 20_000_000L;
+
+    private static final Level threshold = parseLevel(System.getProperty("gym.log.level", "INFO"));
+    private static final RingBuffer buffer = new RingBuffer(CAPACITY);
+    private static final LogWriter writer = new LogWriter();
+
+    static {
+        Thread t = new Thread(writer, "log-writer");
+        t.setDaemon(true);
+        t.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::drain, "log-flush"));
+    }
+
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    public static Log get(Class<?> type) {
+        return new Log(type.getSimpleName());
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, null, format, args);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, null, format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        log(Level.WARN, null, format, args);
+    }
+
+    public void error(String format, Object... args) {
+        log(Level.ERROR, null, format, args);
+    }
+
+    // The stack trace goes to the log file instead of stderr
+    public void error(Throwable error, String format, Object... args) {
+        log(Level.ERROR, error, format, args);
+    }
+
+    private void log(Level level, Throwable error, String format, Object[] args) {
+        if (isEnabled(level)) {
+            buffer.offer(new Event(System.currentTimeMillis(), level, name, Thread.currentThread().getName(), format, args, error));
+        }
+    }
+
+    // Writes out everything logged so far on the calling thread, e.g. from a shutdown hook
+    public static void flush() {
+        writer.drain();
+    }
+
+    public static long getDroppedCount() {
+        return buffer.dropped.get();
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    private static final class Event {
+        final long time;
+        final Level level;
+        final String logger;
+        final String thread;
+        final String format;
+        final Object[] args;
+        final Throwable error;
+
+        Event(long time, Level level, String logger, String thread, String format, Object[] args, Throwable error) {
+            this.time = time;
+            this.level = level;
+            this.logger = logger;
+            this.thread = thread;
+            this.format = format;
+            this.args = args;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer ring. Producers claim a slot
+     * with a CAS on tail and then publish into it; the writer thread only
+     * advances head once the slot at head has been published.
+     */
+    private static final class RingBuffer {
+        private final AtomicReferenceArray<Event> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+        final AtomicLong dropped = new AtomicLong();
+
+        RingBuffer(int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+
+        void offer(Event event) {
+            while (true) {
+                long t = tail.get();
+                if (t - head >= slots.length()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots.set((int) (t & mask), event);
+                    return;
+                }
+            }
+        }
+
+        // Writer thread only; null when nothing is published at head yet
+        Event poll() {
+            int index = (int) (head & mask);
+            Event event = slots.get(index);
+            if (event != null) {
+                slots.lazySet(index, null);
+                head = head + 1;
+            }
+            return event;
+        }
+    }
+
+    private static final class LogWriter implements Runnable {
+        private final boolean console = !"false".equalsIgnoreCase(System.getProperty("gym.log.console", "true"));
+        private final File file = new File(System.getProperty("gym.log.file", "logs" + File.separator + "gym.log"));
+        private final long maxBytes = Long.getLong("gym.log.maxBytes", 5L * 1024 * 1024);
+        private final int keepFiles = Integer.getInteger("gym.log.files", 5);
+        private final SimpleDateFormat timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        private PrintWriter out;
+        private long written;
+        private long reportedDrops;
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!drain()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        // Writes everything published so far; false if there was nothing
+        synchronized boolean drain() {
+            boolean any = false;
+            Event event;
+            while ((event = buffer.poll()) != null) {
+                write(event);
+                any = true;
+            }
+            long drops = buffer.dropped.get();
+            if (drops != reportedDrops) {
+                writeLine(timestamp.format(new Date()) + " WARN  [log-writer] Log: " + (drops - reportedDrops) + " messages dropped (buffer full)", null);
+                reportedDrops = drops;
+                any = true;
+            }
+            if (any && out != null) {
+                out.flush();
+            }
+            return any;
+        }
+
+        private void write(Event e) {
+            String message;
+            try {
+                message = e.args.length == 0 ? e.format : String.format(e.format, e.args);
+            } catch (RuntimeException badFormat) {
+                message = e.format;
+            }
+            String line = String.format("%s %-5s [%s] %s: %s", timestamp.format(new Date(e.time)), e.level, e.thread, e.logger, message);
+            writeLine(line, e.error);
+            if (console) {
+                (e.level.compareTo(Level.WARN) >= 0 ? System.err : System.out).println(line);
+            }
+        }
+
+        private void writeLine(String line, Throwable error) {
+            PrintWriter w = open();
+            if (w == null) {
+                return;
+            }
+            w.println(line);
+            written += line.length() + 1;
+            if (error != null) {
+                StringWriter trace = new StringWriter();
+                error.printStackTrace(new PrintWriter(trace));
+                w.print(trace);
+                written += trace.getBuffer().length();
+            }
+            if (written >= maxBytes) {
+                roll();
+            }
+        }
+
+        private PrintWriter open() {
+            if (out == null) {
+                try {
+                    File dir = file.getAbsoluteFile().getParentFile();
+                    if (dir != null) {
+                        dir.mkdirs();
+                    }
+                    written = file.length();
+                    out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    // No file logging this time; the console copy still works
+                    return null;
+                }
+            }
+            return out;
+        }
+
+        // gym.log -> gym.log.1 -> ... -> gym.log.N (oldest dropped)
+        private void roll() {
+            out.close();
+            out = null;
+            new File(file.getPath() + "." + keepFiles).delete();
+            for (int i = keepFiles - 1; i >= 1; i--) {
+                File from = new File(file.getPath() + "." + i);
+                if (from.exists()) {
+                    from.renameTo(new File(file.getPath() + "." + (i + 1)));
+                }
+            }
+            if (keepFiles > 0) {
+                file.renameTo(new File(file.getPath() + ".1"));
+            } else {
+                file.delete();
+            }
+        }
+    }
+}
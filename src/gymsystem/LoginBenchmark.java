@@ -0,0 +1,54 @@
+package gymsystem;
+
+import java.util.Arrays;
+
+/**
+ * Measures login (password verification) latency at several PBKDF2 costs,
+ * plus the cost calibrated for this machine, so the security/latency
+ * trade-off can be read off a table instead of guessed.
+ *
+ * Run with: java gymsystem.LoginBenchmark [samples] [iterations...]
+ */
+public class LoginBenchmark {
+    private static final int[] DEFAULT_COSTS = { 10_000, 50_000, 100_000, 210_000, 310_000, 600_000 };
+
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int[] costs = DEFAULT_COSTS;
+        if (args.length > 1) {
+            costs = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                costs[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        int calibrated = PasswordHasher.getCalibratedIterations();
+        System.out.println(String.format("%12s %10s %10s %10s %10s", "iterations", "min ms", "p50 ms", "p95 ms", "logins/s"));
+        for (int cost : costs) {
+            report(cost, samples, "");
+        }
+        report(calibrated, samples, "  <- calibrated");
+    }
+
+    private static void report(int iterations, int samples, String note) {
+        String password = "benchmark-password";
+        PasswordHasher.Hash hash = PasswordHasher.hash(password, iterations);
+        // Warm-up rounds are not counted
+        for (int i = 0; i < 3; i++) {
+            PasswordHasher.verify(password, hash.hash, hash.salt, iterations);
+        }
+        double[] millis = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            if (!PasswordHasher.verify(password, hash.hash, hash.salt, iterations)) {
+                throw new IllegalStateException("Verification failed at " + iterations + " iterations");
+            }
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        double p50 = millis[samples / 2];
+        double p95 = millis[Math.min(samples - 1, (int) Math.ceil(samples * 0.95) - 1)];
+        System.out.println(String.format("%12d %10.1f %10.1f %10.1f %10.1f%s",
+                iterations, millis[0], p50, p95, 1000 / p50, note));
+    }
+}
@@ -1,14 +1,51 @@
 package gymsystem;
 
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 public class LoginForm extends javax.swing.JFrame {
     
     public LoginForm() {
         initComponents();
         setLocationRelativeTo(null);
-        DatabaseHelper.initializeDatabase();
-        DatabaseHelper.ensureAdminExists();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint of the window
+                SwingUtilities.invokeLater(() -> StartupTimer.mark(StartupTimer.FIRST_PAINT));
+            }
+        });
+        prepareDatabaseInBackground();
+    }
+
+    // The window paints straight away; logging in waits until the database is ready
+    private void prepareDatabaseInBackground() {
+        btnLogin.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                // First use of DatabaseHelper, so its driver and pool setup run here too
+                DatabaseHelper.prepareDatabase();
+                DatabaseHelper.startExpirySweeper();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(LoginForm.this, "Database error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+                StartupTimer.mark(StartupTimer.DATABASE_READY);
+                btnLogin.setEnabled(true);
+                PasswordHasher.calibrateInBackground();
+            }
+        }.execute();
     }
     
     @SuppressWarnings("unchecked")
@@ -142,12 +179,20 @@ public class LoginForm extends javax.swing.JFrame {
             return;
         }
         
-        if (DatabaseHelper.validateLogin(username, password)) {
-            this.dispose();
-            new DashboardForm().setVisible(true);
-        } else {
-            JOptionPane.showMessageDialog(this, "Invalid username or password!", "Login Failed", JOptionPane.ERROR_MESSAGE);
-        }
+        // Password hashing takes ~100 ms by design, so it runs off the EDT
+        btnLogin.setEnabled(false);
+        AsyncDatabase.onEdt(AsyncDatabase.validateLogin(username, password), valid -> {
+            if (valid) {
+                this.dispose();
+                new DashboardForm().setVisible(true);
+            } else {
+                btnLogin.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Invalid username or password!", "Login Failed", JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            btnLogin.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Database error: " + AsyncDatabase.describe(error), "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }//GEN-LAST:event_btnLoginActionPerformed
 
     private void btnExitActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnExitActionPerformed
@@ -155,6 +200,7 @@ public class LoginForm extends javax.swing.JFrame {
     }//GEN-LAST:event_btnExitActionPerformed
 
     public static void main(String args[]) {
+        StartupTimer.mark(StartupTimer.MAIN);
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
                 new LoginForm().setVisible(true);
@@ -0,0 +1,91 @@
+package gymsystem;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the members table.
+ *
+ * Immutable; use withStatus() to get an updated copy. Dates are null when
+ * the stored text is empty or not yyyy-MM-dd.
+ */
+public final class Member {
+    private final int memberId;
+    private final String fullName;
+    private final String email;
+    private final String phone;
+    private final String address;
+    private final int age;
+    private final String gender;
+    private final String membershipType;
+    private final LocalDate joinDate;
+    private final LocalDate expiryDate;
+    private final String status;
+
+    public Member(int memberId, String fullName, String email, String phone, String address, int age,
+                  String gender, String membershipType, LocalDate joinDate, LocalDate expiryDate, String status) {
+        this.memberId = memberId;
+        this.fullName = fullName;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+        this.age = age;
+        this.gender = gender;
+        this.membershipType = membershipType;
+        this.joinDate = joinDate;
+        this.expiryDate = expiryDate;
+        this.status = status;
+    }
+
+    public Member withStatus(String newStatus) {
+        return new Member(memberId, fullName, email, phone, address, age, gender, membershipType, joinDate, expiryDate, newStatus);
+    }
+
+    public int getMemberId() {
+        return memberId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getMembershipType() {
+        return membershipType;
+    }
+
+    public LocalDate getJoinDate() {
+        return joinDate;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "Member " + memberId + " (" + fullName + ", " + status + ")";
+    }
+}
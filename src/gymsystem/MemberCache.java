@@ -0,0 +1,145 @@
+package gymsystem;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of Member rows keyed by member_id.
+ *
+ * DatabaseHelper reads through it and keeps it in step on writes: status
+ * updates patch the cached copy, anything it can't track precisely (bulk
+ * sweeps, resets) clears it. Entries can also expire after a TTL so edits
+ * made by another desk are picked up eventually.
+ *
+ * Every write bumps a generation counter. Read-through fills pass the
+ * generation they saw before their query started and are dropped if a
+ * write happened since: the row came from a snapshot that may predate
+ * that write, and caching it would undo the write-through.
+ *
+ * Settings (system properties): gym.memberCache.size (default 2000,
+ * 0 disables the cache) and gym.memberCache.ttlSeconds (default 300,
+ * 0 = no expiry).
+ */
+public class MemberCache {
+
+    private static final class CachedMember {
+        final Member member;
+        final long loadedAt;
+
+        CachedMember(Member member, long loadedAt) {
+            this.member = member;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final LinkedHashMap<Integer, CachedMember> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long staleFills;
+    // Bumped by every write-through and invalidation
+    private long generation;
+
+    public MemberCache() {
+        this(Integer.getInteger("gym.memberCache.size", 2000), Long.getLong("gym.memberCache.ttlSeconds", 300) * 1000);
+    }
+
+    public MemberCache(int capacity, long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<Integer, CachedMember>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedMember> eldest) {
+                if (size() > MemberCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // The cached member, or null on a miss (including an expired entry)
+    public synchronized Member get(int memberId) {
+        CachedMember cached = entries.get(memberId);
+        if (cached != null && ttlMillis > 0 && System.currentTimeMillis() - cached.loadedAt > ttlMillis) {
+            entries.remove(memberId);
+            expirations++;
+            cached = null;
+        }
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.member;
+    }
+
+    // Take before starting the query whose rows will be passed to put()
+    public synchronized long stamp() {
+        return generation;
+    }
+
+    public synchronized void put(Member member, long stamp) {
+        if (stamp != generation) {
+            staleFills++;
+            return;
+        }
+        if (capacity > 0 && member != null) {
+            entries.put(member.getMemberId(), new CachedMember(member, System.currentTimeMillis()));
+        }
+    }
+
+    public synchronized void putAll(Collection<Member> members, long stamp) {
+        if (stamp != generation) {
+            staleFills++;
+            return;
+        }
+        for (Member member : members) {
+            put(member, stamp);
+        }
+    }
+
+    // Write-through for status changes; keeps the entry's original load time
+    public synchronized void updateStatus(int memberId, String status) {
+        generation++;
+        CachedMember cached = entries.get(memberId);
+        if (cached != null) {
+            entries.put(memberId, new CachedMember(cached.member.withStatus(status), cached.loadedAt));
+        }
+    }
+
+    public synchronized void invalidate(int memberId) {
+        generation++;
+        entries.remove(memberId);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Member cache: %d/%d entries, hit ratio %.1f%% (%d hits, %d misses), %d evictions, %d expired, %d stale fills dropped",
+                entries.size(), capacity, getHitRatio() * 100, hits, misses, evictions, expirations, staleFills);
+    }
+}
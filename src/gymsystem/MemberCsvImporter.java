@@ -0,0 +1,301 @@
+package gymsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams a CSV file of members into the database.
+ *
+ * The first line is a header naming the columns (any order, case
+ * insensitive): full_name, email, phone, address, age, gender,
+ * membership_type, join_date, expiry_date. full_name and email are
+ * required, like in AddMemberForm. Valid rows are inserted with JDBC
+ * batches, one writer command per chunk, so the import shares the single
+ * writer with the desks instead of racing it for the write lock; invalid
+ * rows are reported with their line number and skipped without stopping
+ * the import.
+ */
+public class MemberCsvImporter {
+    private static final Log log = Log.get(MemberCsvImporter.class);
+
+    public static final int CHUNK_SIZE = 5000;
+    // Keep the error report readable; the count is always exact
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String[] COLUMNS = {
+        "full_name", "email", "phone", "address", "age", "gender", "membership_type", "join_date", "expiry_date"
+    };
+
+    public interface ProgressListener {
+        // Called after each committed chunk, from the importing thread
+        void progress(int rowsRead, int imported, int rejected);
+    }
+
+    public static class Result {
+        public int imported;
+        public int rejected;
+        public long elapsedMillis;
+        public final List<String> errors = new ArrayList<>();
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+
+        // Adds a committed chunk's tally
+        void add(Result chunk) {
+            imported += chunk.imported;
+            rejected += chunk.rejected;
+            for (String error : chunk.errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return imported + " members imported, " + rejected + " rows rejected in " + elapsedMillis + " ms";
+        }
+    }
+
+    // One validated row, plus the line it came from for error reporting
+    private static final class Row {
+        final int line;
+        final String[] values = new String[COLUMNS.length];
+        int age;
+
+        Row(int line) {
+            this.line = line;
+        }
+    }
+
+    public static Result importFile(Path file, ProgressListener listener) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        Result result = new Result();
+        // Counts physical lines, so errors point at the right line after a multi-line quoted field
+        try (LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new IOException("The file is empty");
+            }
+            int[] positions = mapHeader(header);
+
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            int rowsRead = 0;
+            while (true) {
+                // A record starts on the line after the last one read
+                int lineNumber = reader.getLineNumber() + 1;
+                List<String> record = readRecord(reader);
+                if (record == null) {
+                    break;
+                }
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                    continue; // blank line
+                }
+                rowsRead++;
+                Row row = new Row(lineNumber);
+                String error = parse(record, positions, row);
+                if (error != null) {
+                    result.reject(lineNumber, error);
+                } else {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk, result);
+                    chunk.clear();
+                    DataChanges.publish(DataChange.membersChanged());
+                    if (listener != null) {
+                        listener.progress(rowsRead, result.imported, result.rejected);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, result);
+                DataChanges.publish(DataChange.membersChanged());
+            }
+            if (listener != null) {
+                listener.progress(rowsRead, result.imported, result.rejected);
+            }
+        }
+        result.elapsedMillis = System.currentTimeMillis() - start;
+        log.info("CSV import of %s: %s", file.getFileName(), result);
+        return result;
+    }
+
+    private static int[] mapHeader(List<String> header) throws IOException {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Tolerate a UTF-8 BOM and "Full Name" style headers
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+            index.put(name, i);
+        }
+        int[] positions = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Integer pos = index.get(COLUMNS[i]);
+            positions[i] = pos == null ? -1 : pos;
+        }
+        if (positions[0] < 0 || positions[1] < 0) {
+            throw new IOException("The header must include full_name and email columns");
+        }
+        return positions;
+    }
+
+    // Fills row from the record; returns an error message or null if the row is valid
+    private static String parse(List<String> record, int[] positions, Row row) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            int pos = positions[i];
+            String value = pos >= 0 && pos < record.size() ? record.get(pos).trim() : "";
+            row.values[i] = value;
+        }
+        if (row.values[0].isEmpty()) {
+            return "full_name is required";
+        }
+        if (row.values[1].isEmpty()) {
+            return "email is required";
+        }
+        String age = row.values[4];
+        if (!age.isEmpty()) {
+            try {
+                row.age = Integer.parseInt(age);
+            } catch (NumberFormatException e) {
+                return "age '" + age + "' is not a number";
+            }
+            if (row.age < 1 || row.age > 120) {
+                return "age " + row.age + " is out of range";
+            }
+        }
+        LocalDate join;
+        LocalDate expiry;
+        try {
+            join = parseDate(row.values[7]);
+            expiry = parseDate(row.values[8]);
+        } catch (DateTimeParseException e) {
+            return "dates must be yyyy-MM-dd (" + e.getParsedString() + ")";
+        }
+        if (join != null && expiry != null && expiry.isBefore(join)) {
+            return "expiry_date is before join_date";
+        }
+        return null;
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    // One writer command per chunk; if the batch fails, retry row by row to find the bad ones.
+    // The chunk's tally only reaches result once the writer has committed it.
+    private static void insertChunk(List<Row> chunk, Result result) throws SQLException {
+        result.add(DatabaseHelper.writeAndWait(c -> {
+            Result tally = new Result();
+            Savepoint savepoint = c.setSavepoint();
+            try (PreparedStatement pstmt = c.prepareStatement(DatabaseHelper.INSERT_MEMBER_SQL)) {
+                for (Row row : chunk) {
+                    bind(pstmt, row);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                c.releaseSavepoint(savepoint);
+                tally.imported = chunk.size();
+            } catch (BatchUpdateException e) {
+                c.rollback(savepoint);
+                c.releaseSavepoint(savepoint);
+                insertRowByRow(c, chunk, tally);
+            }
+            return tally;
+        }));
+    }
+
+    private static void insertRowByRow(Connection c, List<Row> chunk, Result tally) throws SQLException {
+        try (PreparedStatement pstmt = c.prepareStatement(DatabaseHelper.INSERT_MEMBER_SQL)) {
+            for (Row row : chunk) {
+                try {
+                    bind(pstmt, row);
+                    pstmt.executeUpdate();
+                    tally.imported++;
+                } catch (SQLException e) {
+                    // Busy, locked or I/O errors fail the import rather than drop valid rows
+                    if (!DatabaseMetrics.isConstraintViolation(e)) {
+                        throw e;
+                    }
+                    tally.reject(row.line, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, Row row) throws SQLException {
+        pstmt.setString(1, row.values[0]);
+        pstmt.setString(2, row.values[1]);
+        pstmt.setString(3, row.values[2]);
+        pstmt.setString(4, row.values[3]);
+        pstmt.setInt(5, row.age);
+        pstmt.setString(6, row.values[5]);
+        pstmt.setString(7, row.values[6]);
+        pstmt.setString(8, row.values[7]);
+        pstmt.setString(9, row.values[8]);
+    }
+
+    // Reads one CSV record (RFC 4180 quoting, quoted fields may span lines); null at end of file
+    static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (quoted) {
+                    if (ch == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(ch);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break; // unterminated quote at end of file; keep what we have
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
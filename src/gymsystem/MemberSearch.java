@@ -0,0 +1,154 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Type-ahead member search over the members_fts index (full_name, email, phone).
+ *
+ * Keystrokes restart a short debounce timer; when it fires the query runs
+ * on a background thread and the results are handed back on the EDT. Every
+ * new search bumps a generation number: queued searches that are already
+ * stale are skipped, the one in flight is interrupted with cancel(), and
+ * results from an older generation are never delivered.
+ */
+public class MemberSearch {
+    private static final Log log = Log.get(MemberSearch.class);
+
+    public static final int DEBOUNCE_MILLIS = 150;
+    public static final int MAX_RESULTS = 200;
+
+    // Newest members first, like the paged table; the FTS side stops at the limit
+    private static final String SEARCH_SQL = "SELECT * FROM members WHERE member_id IN (" +
+            "SELECT rowid FROM members_fts WHERE members_fts MATCH ? ORDER BY rowid DESC LIMIT ?) " +
+            "ORDER BY member_id DESC";
+
+    private final Consumer<List<Member>> onResults;
+    private final Timer debounce;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object runningLock = new Object();
+    private PreparedStatement running;
+    private String pendingText = "";
+
+    // onResults gets null when the text has nothing to search for
+    public MemberSearch(Consumer<List<Member>> onResults) {
+        this.onResults = onResults;
+        this.debounce = new Timer(DEBOUNCE_MILLIS, e -> searchNow(pendingText));
+        this.debounce.setRepeats(false);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "member-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Call on the EDT for every edit of the search box
+    public void textChanged(String text) {
+        pendingText = text;
+        debounce.restart();
+    }
+
+    // Call on the EDT; skips the debounce delay
+    public void searchNow(String text) {
+        debounce.stop();
+        long gen = generation.incrementAndGet();
+        cancelRunning();
+        String match = toMatchQuery(text);
+        if (match == null) {
+            onResults.accept(null);
+            return;
+        }
+        executor.execute(() -> run(gen, match));
+    }
+
+    public void shutdown() {
+        debounce.stop();
+        generation.incrementAndGet();
+        cancelRunning();
+        executor.shutdownNow();
+    }
+
+    // Turns free text into an FTS5 query: every word must match as a prefix. null if there are no words.
+    public static String toMatchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        // Only letters and digits survive, so the quoted terms need no escaping
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append('"').append(word).append("\"*");
+            }
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    private void run(long gen, String match) {
+        if (gen != generation.get()) {
+            return; // superseded while queued
+        }
+        try {
+            List<Member> results = query(match);
+            SwingUtilities.invokeLater(() -> {
+                if (gen == generation.get()) {
+                    onResults.accept(results);
+                }
+            });
+        } catch (SQLException e) {
+            // A cancelled query fails with "interrupted"; only report failures of the current search
+            if (gen == generation.get()) {
+                log.error(e, "Member search failed");
+            }
+        }
+    }
+
+    private List<Member> query(String match) throws SQLException {
+        List<Member> results = new ArrayList<>();
+        try (Connection c = DatabaseHelper.getReadConnection(); PreparedStatement pstmt = c.prepareStatement(SEARCH_SQL)) {
+            synchronized (runningLock) {
+                running = pstmt;
+            }
+            try {
+                pstmt.setString(1, match);
+                pstmt.setInt(2, MAX_RESULTS);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(DatabaseHelper.readMember(rs));
+                    }
+                }
+            } finally {
+                // Cleared before the connection goes back to the pool, so cancel() can't hit another borrower
+                synchronized (runningLock) {
+                    running = null;
+                }
+            }
+        }
+        return results;
+    }
+
+    private void cancelRunning() {
+        synchronized (runningLock) {
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    // Already finished
+                }
+            }
+        }
+    }
+}
@@ -1,39 +1,90 @@
 package gymsystem;
 
 import java.awt.Color;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 public class MembersForm extends javax.swing.JFrame {
+    private static final Log log = Log.get(MembersForm.class);
 
-    private DefaultTableModel tableModel;
+    private final MembersTableModel tableModel = new MembersTableModel();
+    private final MemberSearch search = new MemberSearch(this::showSearchResults);
+    private final Consumer<DataChange> changeListener = this::dataChanged;
 
     public MembersForm() {
         initComponents();
         setLocationRelativeTo(null); // Center the window
+        tblMembers.setModel(tableModel);
+        CellRenderers.install(tblMembers, 10);
+        tblMembers.setSelectionMode(javax.swing.ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { search.textChanged(txtSearch.getText()); }
+            public void removeUpdate(DocumentEvent e) { search.textChanged(txtSearch.getText()); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        DataChanges.subscribe(changeListener);
         loadMembersTable();
     }
 
+    // Keeps the table current with writes from any window or desk, touching only the changed rows
+    private void dataChanged(DataChange change) {
+        if (!change.touchesMembers()) {
+            return;
+        }
+        int[] added = change.getAddedMembers();
+        if (change.isMembersChanged() || added.length > MembersTableModel.PAGE_SIZE) {
+            loadMembersTable();
+            return;
+        }
+        tableModel.applyStatusChanges(change.getMemberStatusChanges());
+        if (added.length == 0) {
+            return;
+        }
+        if (tableModel.isShowingSearchResults()) {
+            // A new member may match the search
+            search.searchNow(txtSearch.getText());
+        } else {
+            AsyncDatabase.onEdt(AsyncDatabase.getMembers(added), tableModel::addMembers,
+                    error -> log.warn("Could not load new members: %s", AsyncDatabase.describe(error)));
+        }
+    }
+
+    // null means the search box is empty: go back to the paged list of all members
+    private void showSearchResults(List<Member> results) {
+        if (results == null) {
+            tableModel.reload();
+        } else {
+            tableModel.showSearchResults(results);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        DataChanges.unsubscribe(changeListener);
+        search.shutdown();
+        super.dispose();
+    }
+
     private void loadMembersTable() {
-        String[] columns = {"ID", "Full Name", "Email", "Phone", "Address", "Age", "Gender", "Membership Type", "Join Date", "Expiry Date", "Status"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        tblMembers.setModel(tableModel);
-        
         try {
-            List<String[]> members = DatabaseHelper.getAllMembers();
-            if (members != null) {
-                for (String[] member : members) {
-                    tableModel.addRow(member);
-                }
+            // Keep showing the search results if a search is active
+            String text = txtSearch.getText();
+            if (MemberSearch.toMatchQuery(text) != null) {
+                search.searchNow(text);
+                return;
             }
+            tableModel.reload();
         } catch (Exception e) {
-            System.err.println("Table Load Error: " + e.getMessage());
+            log.warn("Could not load members: %s", e.getMessage());
         }
     }
 
@@ -43,6 +94,8 @@ public class MembersForm extends javax.swing.JFrame {
 
         jPanel1 = new javax.swing.JPanel();
         jLabel1 = new javax.swing.JLabel();
+        lblSearch = new javax.swing.JLabel();
+        txtSearch = new javax.swing.JTextField();
         jScrollPane1 = new javax.swing.JScrollPane();
         tblMembers = new javax.swing.JTable();
         btnAddMember = new javax.swing.JButton();
@@ -50,6 +103,8 @@ public class MembersForm extends javax.swing.JFrame {
         btnActivate = new javax.swing.JButton();
         btnDeactivate = new javax.swing.JButton();
         btnClose = new javax.swing.JButton();
+        btnImport = new javax.swing.JButton();
+        progressImport = new javax.swing.JProgressBar();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
         setTitle("Member Management");
@@ -59,6 +114,11 @@ public class MembersForm extends javax.swing.JFrame {
         jLabel1.setFont(new java.awt.Font("Segoe UI", 1, 24)); // NOI18N
         jLabel1.setText("MEMBER MANAGEMENT");
 
+        lblSearch.setFont(new java.awt.Font("Segoe UI", 1, 12)); // NOI18N
+        lblSearch.setText("SEARCH:");
+
+        txtSearch.setToolTipText("Name, email or phone");
+
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
         jPanel1.setLayout(jPanel1Layout);
         jPanel1Layout.setHorizontalGroup(
@@ -66,13 +126,20 @@ public class MembersForm extends javax.swing.JFrame {
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(20, 20, 20)
                 .addComponent(jLabel1)
-                .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+                .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                .addComponent(lblSearch)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(txtSearch, javax.swing.GroupLayout.PREFERRED_SIZE, 260, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(20, 20, 20))
         );
         jPanel1Layout.setVerticalGroup(
             jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(15, 15, 15)
-                .addComponent(jLabel1)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel1)
+                    .addComponent(lblSearch)
+                    .addComponent(txtSearch, javax.swing.GroupLayout.PREFERRED_SIZE, 28, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addContainerGap(15, Short.MAX_VALUE))
         );
 
@@ -127,6 +194,17 @@ public class MembersForm extends javax.swing.JFrame {
             }
         });
 
+        btnImport.setFont(new java.awt.Font("Segoe UI", 1, 12)); // NOI18N
+        btnImport.setText("IMPORT CSV");
+        btnImport.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                btnImportActionPerformed(evt);
+            }
+        });
+
+        progressImport.setStringPainted(true);
+        progressImport.setVisible(false);
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
         getContentPane().setLayout(layout);
         layout.setHorizontalGroup(
@@ -144,7 +222,11 @@ public class MembersForm extends javax.swing.JFrame {
                         .addComponent(btnDeactivate, javax.swing.GroupLayout.PREFERRED_SIZE, 110, javax.swing.GroupLayout.PREFERRED_SIZE)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                         .addComponent(btnRefresh, javax.swing.GroupLayout.PREFERRED_SIZE, 100, javax.swing.GroupLayout.PREFERRED_SIZE)
-                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, 384, Short.MAX_VALUE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(btnImport, javax.swing.GroupLayout.PREFERRED_SIZE, 120, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(progressImport, javax.swing.GroupLayout.DEFAULT_SIZE, 244, Short.MAX_VALUE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                         .addComponent(btnClose, javax.swing.GroupLayout.PREFERRED_SIZE, 100, javax.swing.GroupLayout.PREFERRED_SIZE)))
                 .addContainerGap())
         );
@@ -160,6 +242,8 @@ public class MembersForm extends javax.swing.JFrame {
                     .addComponent(btnActivate, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(btnDeactivate, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(btnRefresh, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(btnImport, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(progressImport, javax.swing.GroupLayout.PREFERRED_SIZE, 24, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(btnClose, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addGap(20, 20, 20))
         );
@@ -182,10 +266,6 @@ public class MembersForm extends javax.swing.JFrame {
         loadMembersTable();
     }
     
-    public void refreshTable() {
-    loadMembersTable();
-    }
-
     private void btnActivateActionPerformed(java.awt.event.ActionEvent evt) {                                            
         handleStatusUpdate("ACTIVE");
     }                                           
@@ -198,17 +278,85 @@ public class MembersForm extends javax.swing.JFrame {
         this.dispose();
     }                                        
 
-    private void handleStatusUpdate(String status) {
-        int row = tblMembers.getSelectedRow();
-        if (row != -1) {
-            int id = Integer.parseInt(tableModel.getValueAt(row, 0).toString());
-            if (DatabaseHelper.updateMemberStatus(id, status)) {
-                JOptionPane.showMessageDialog(this, "Status updated to " + status);
-                loadMembersTable();
+    private void btnImportActionPerformed(java.awt.event.ActionEvent evt) {                                          
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        btnImport.setEnabled(false);
+        progressImport.setIndeterminate(true);
+        progressImport.setString("Importing " + file.getFileName() + "...");
+        progressImport.setVisible(true);
+
+        new SwingWorker<MemberCsvImporter.Result, int[]>() {
+            @Override
+            protected MemberCsvImporter.Result doInBackground() throws Exception {
+                return MemberCsvImporter.importFile(file, (rowsRead, imported, rejected) ->
+                        publish(new int[] { rowsRead, imported, rejected }));
             }
-        } else {
+
+            @Override
+            protected void process(List<int[]> chunks) {
+                int[] latest = chunks.get(chunks.size() - 1);
+                progressImport.setString(latest[1] + " imported, " + latest[2] + " rejected");
+            }
+
+            @Override
+            protected void done() {
+                btnImport.setEnabled(true);
+                progressImport.setVisible(false);
+                try {
+                    showImportResult(get());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(MembersForm.this, "Import failed: " + cause.getMessage(), "Import", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }                                         
+
+    private void showImportResult(MemberCsvImporter.Result result) {
+        if (result.errors.isEmpty()) {
+            JOptionPane.showMessageDialog(this, result.toString(), "Import", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder text = new StringBuilder(result.toString()).append("\n\n");
+        for (String error : result.errors) {
+            text.append(error).append('\n');
+        }
+        if (result.rejected > result.errors.size()) {
+            text.append("... and ").append(result.rejected - result.errors.size()).append(" more");
+        }
+        JTextArea area = new JTextArea(text.toString(), 15, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Import finished with errors", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private void handleStatusUpdate(String status) {
+        int[] rows = tblMembers.getSelectedRows();
+        if (rows.length == 0) {
             JOptionPane.showMessageDialog(this, "Select a member first!");
+            return;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = tblMembers.convertRowIndexToModel(rows[i]);
         }
+        btnActivate.setEnabled(false);
+        btnDeactivate.setEnabled(false);
+        // Rows that were never loaded are resolved to ids first
+        int selected = rows.length;
+        AsyncDatabase.onEdt(tableModel.resolveMemberIds(rows).thenCompose(memberIds ->
+                AsyncDatabase.updateMemberStatus(memberIds, status)), updated -> {
+            btnActivate.setEnabled(true);
+            btnDeactivate.setEnabled(true);
+            JOptionPane.showMessageDialog(this, (selected == 1 ? "Status" : updated + " members") + " updated to " + status);
+        }, error -> {
+            btnActivate.setEnabled(true);
+            btnDeactivate.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Could not update status: " + AsyncDatabase.describe(error), "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -216,10 +364,14 @@ public class MembersForm extends javax.swing.JFrame {
     private javax.swing.JButton btnAddMember;
     private javax.swing.JButton btnClose;
     private javax.swing.JButton btnDeactivate;
+    private javax.swing.JButton btnImport;
     private javax.swing.JButton btnRefresh;
     private javax.swing.JLabel jLabel1;
+    private javax.swing.JLabel lblSearch;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JScrollPane jScrollPane1;
+    private javax.swing.JProgressBar progressImport;
     private javax.swing.JTable tblMembers;
+    private javax.swing.JTextField txtSearch;
     // End of variables declaration//GEN-END:variables
 }
\ No newline at end of file
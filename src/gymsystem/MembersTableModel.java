@@ -0,0 +1,359 @@
+package gymsystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model for tblMembers that loads members one page at a time.
+ *
+ * Only the pages the table actually paints are fetched, using the keyset
+ * query DatabaseHelper.getMembersPage(), and at most MAX_CACHED_PAGES are
+ * kept in memory. For each page seen we remember the member_id it starts
+ * after (one int per page) so scrolling back re-fetches by keyset too.
+ *
+ * Pages load on AsyncDatabase threads, never on the EDT: a row whose page
+ * is still loading paints empty and is repainted when the page arrives.
+ * All state is only touched on the EDT.
+ *
+ * Pages only cover members that existed at the last reload (member_id
+ * below baseAnchor). Members added since then are kept in a short list
+ * shown above the pages, so an insert is one fireTableRowsInserted and
+ * the page boundaries and anchors stay valid.
+ */
+public class MembersTableModel extends AbstractTableModel {
+    private static final Log log = Log.get(MembersTableModel.class);
+
+    public static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 10;
+
+    private static final String[] COLUMNS = {"ID", "Full Name", "Email", "Phone", "Address", "Age", "Gender", "Membership Type", "Join Date", "Expiry Date", "Status"};
+
+    // Rows covered by the pages
+    private int rowCount = 0;
+    // Pages hold members below this id; 0 until the first reload
+    private int baseAnchor = 0;
+    // Members added since the last reload, newest first
+    private final List<Member> head = new ArrayList<>();
+
+    // When set, the table shows these search results instead of the paged member list
+    private List<Member> searchResults;
+
+    // page index -> rows, least recently used page dropped first
+    private final Map<Integer, List<Member>> pages = new LinkedHashMap<Integer, List<Member>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Member>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    // page index -> member_id the page starts after (0 = top of the list)
+    private final Map<Integer, Integer> pageAnchors = new HashMap<>();
+
+    // Pages with a load in flight
+    private final Set<Integer> loading = new HashSet<>();
+    // Bumped by every reload and search; loads started before that are ignored when they finish
+    private int generation;
+
+    private static final class PageLoad {
+        final int anchor;
+        final List<Member> rows;
+        final int count;
+
+        PageLoad(int anchor, List<Member> rows, int count) {
+            this.anchor = anchor;
+            this.rows = rows;
+            this.count = count;
+        }
+    }
+
+    // Drop everything and start again from the first page. The current rows stay
+    // on screen until the new count and first page have arrived.
+    public void reload() {
+        int gen = ++generation;
+        AsyncDatabase.onEdt(AsyncDatabase.supply(() -> {
+            int count = DatabaseHelper.countMembers();
+            // Opening the table costs one page
+            List<Member> first = count > 0 ? DatabaseHelper.getMembersPage(0, PAGE_SIZE) : Collections.<Member>emptyList();
+            // member_id starts at 1, so an anchor of 1 is an empty list
+            int anchor = first.isEmpty() ? 1 : first.get(0).getMemberId() + 1;
+            return new PageLoad(anchor, first, count);
+        }), load -> {
+            if (gen != generation) {
+                return;
+            }
+            searchResults = null;
+            pages.clear();
+            pageAnchors.clear();
+            loading.clear();
+            baseAnchor = load.anchor;
+            // Members added while the reload ran may be missing from its first page
+            head.removeIf(m -> m.getMemberId() < baseAnchor);
+            rowCount = load.count;
+            storePage(0, load);
+            fireTableDataChanged();
+        }, error -> log.error(error, "Could not reload members"));
+    }
+
+    public void showSearchResults(List<Member> results) {
+        generation++;
+        loading.clear();
+        searchResults = new ArrayList<>(results);
+        fireTableDataChanged();
+    }
+
+    public boolean isShowingSearchResults() {
+        return searchResults != null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return searchResults != null ? searchResults.size() : head.size() + rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+            case 5:
+                return Integer.class;
+            case 8:
+            case 9:
+                return LocalDate.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Member m = getMember(row);
+        if (m == null) {
+            return null;
+        }
+        switch (column) {
+            case 0: return m.getMemberId();
+            case 1: return m.getFullName();
+            case 2: return m.getEmail();
+            case 3: return m.getPhone();
+            case 4: return m.getAddress();
+            case 5: return m.getAge();
+            case 6: return m.getGender();
+            case 7: return m.getMembershipType();
+            case 8: return m.getJoinDate();
+            case 9: return m.getExpiryDate();
+            case 10: return m.getStatus();
+            default: return null;
+        }
+    }
+
+    // null while the row's page is loading
+    public Member getMember(int row) {
+        if (searchResults != null) {
+            return row < searchResults.size() ? searchResults.get(row) : null;
+        }
+        if (row < head.size()) {
+            return head.get(row);
+        }
+        row -= head.size();
+        List<Member> page = getPage(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        // Rows deleted since the count was taken leave a short last page
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    public int getMemberId(int row) {
+        Member m = getMember(row);
+        return m == null ? -1 : m.getMemberId();
+    }
+
+    // member_ids of the given rows. Rows whose page isn't loaded (a Ctrl+A over the whole
+    // list, or a page since evicted) are looked up by keyset, one query per run of
+    // consecutive rows; fails rather than leaving any row out.
+    public CompletableFuture<int[]> resolveMemberIds(int[] rows) {
+        int[] ids = new int[rows.length];
+        List<int[]> runs = new ArrayList<>(); // {first index into rows, paged row, length}
+        for (int i = 0; i < rows.length; i++) {
+            Member m = searchResults != null || rows[i] < head.size() ? getMember(rows[i]) : peekPagedMember(rows[i] - head.size());
+            if (m != null) {
+                ids[i] = m.getMemberId();
+                continue;
+            }
+            if (searchResults != null) {
+                continue; // beyond the results; can't happen for a real selection
+            }
+            int paged = rows[i] - head.size();
+            int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[0] + last[2] == i && last[1] + last[2] == paged) {
+                last[2]++;
+            } else {
+                runs.add(new int[] { i, paged, 1 });
+            }
+        }
+        if (runs.isEmpty()) {
+            return CompletableFuture.completedFuture(ids);
+        }
+        // Seek from the nearest known page anchor, captured now on the EDT
+        List<int[]> seeks = new ArrayList<>(runs.size()); // {anchor, skip}
+        for (int[] run : runs) {
+            int page = run[1] / PAGE_SIZE;
+            while (page > 0 && !pageAnchors.containsKey(page)) {
+                page--;
+            }
+            int anchor = page == 0 ? baseAnchor : pageAnchors.get(page);
+            seeks.add(new int[] { anchor, run[1] - page * PAGE_SIZE });
+        }
+        return AsyncDatabase.supply(() -> {
+            for (int r = 0; r < runs.size(); r++) {
+                int[] run = runs.get(r);
+                int[] found = DatabaseHelper.findMemberIdsAfter(seeks.get(r)[0], seeks.get(r)[1], run[2]);
+                if (found == null) {
+                    throw new IllegalStateException("Could not look up the selected members");
+                }
+                // Rows deleted since the count was taken leave the tail of the run empty
+                System.arraycopy(found, 0, ids, run[0], found.length);
+            }
+            return Arrays.stream(ids).filter(id -> id > 0).toArray();
+        });
+    }
+
+    // A loaded paged row, without starting a page load
+    private Member peekPagedMember(int paged) {
+        List<Member> page = pages.get(paged / PAGE_SIZE);
+        int offset = paged % PAGE_SIZE;
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    // Patches the status of the loaded rows of these members after a committed update, without refetching.
+    // Goes by id because the rows may have moved while the update was in flight.
+    public void applyStatusChanges(Map<Integer, String> statusById) {
+        if (statusById.isEmpty()) {
+            return;
+        }
+        if (searchResults != null) {
+            patchStatus(searchResults, 0, statusById);
+            return;
+        }
+        patchStatus(head, 0, statusById);
+        // Evicted pages are re-read from the database when next shown
+        for (Map.Entry<Integer, List<Member>> page : pages.entrySet()) {
+            patchStatus(page.getValue(), head.size() + page.getKey() * PAGE_SIZE, statusById);
+        }
+    }
+
+    private void patchStatus(List<Member> rows, int firstRow, Map<Integer, String> statusById) {
+        for (int i = 0; i < rows.size(); i++) {
+            String status = statusById.get(rows.get(i).getMemberId());
+            if (status != null && !status.equals(rows.get(i).getStatus())) {
+                rows.set(i, rows.get(i).withStatus(status));
+                fireTableCellUpdated(firstRow + i, 10);
+            }
+        }
+    }
+
+    // Shows newly committed members above the paged rows. Ignored while search results
+    // are shown; members the last reload already picked up are skipped.
+    public void addMembers(List<Member> added) {
+        if (searchResults != null) {
+            return;
+        }
+        for (Member m : added) {
+            int id = m.getMemberId();
+            if (id < baseAnchor) {
+                continue;
+            }
+            // head is sorted by member_id, newest first
+            int row = 0;
+            while (row < head.size() && head.get(row).getMemberId() > id) {
+                row++;
+            }
+            if (row < head.size() && head.get(row).getMemberId() == id) {
+                continue;
+            }
+            head.add(row, m);
+            fireTableRowsInserted(row, row);
+        }
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    // The page if it is loaded; otherwise starts loading it and returns null
+    private List<Member> getPage(int index) {
+        List<Member> page = pages.get(index);
+        if (page == null && loading.add(index)) {
+            loadPage(index);
+        }
+        return page;
+    }
+
+    private void loadPage(int index) {
+        int gen = generation;
+        Integer known = index == 0 ? Integer.valueOf(baseAnchor) : pageAnchors.get(index);
+        // Seek from the nearest page whose anchor we know
+        int from = index - 1;
+        while (known == null && from > 0 && !pageAnchors.containsKey(from)) {
+            from--;
+        }
+        int start = known != null ? known : pageAnchors.containsKey(from) ? pageAnchors.get(from) : baseAnchor;
+        int skip = (index - from) * PAGE_SIZE - 1;
+        AsyncDatabase.onEdt(AsyncDatabase.supply(() -> {
+            int anchor = known != null ? known : DatabaseHelper.findMemberIdAfter(start, skip);
+            if (anchor < 0) {
+                // Past the end of the table
+                return new PageLoad(anchor, Collections.<Member>emptyList(), 0);
+            }
+            return new PageLoad(anchor, DatabaseHelper.getMembersPage(anchor, PAGE_SIZE), 0);
+        }), load -> {
+            if (gen != generation) {
+                return;
+            }
+            loading.remove(index);
+            storePage(index, load);
+            int first = index * PAGE_SIZE;
+            if (first < rowCount) {
+                fireTableRowsUpdated(head.size() + first, head.size() + Math.min(rowCount, first + PAGE_SIZE) - 1);
+            }
+        }, error -> {
+            if (gen == generation) {
+                loading.remove(index);
+            }
+            log.error(error, "Could not load members page %d", index);
+        });
+    }
+
+    private void storePage(int index, PageLoad load) {
+        if (load.anchor >= 0) {
+            pageAnchors.put(index, load.anchor);
+        }
+        pages.put(index, load.rows);
+        if (load.rows.size() == PAGE_SIZE) {
+            pageAnchors.put(index + 1, load.rows.get(PAGE_SIZE - 1).getMemberId());
+        }
+    }
+}
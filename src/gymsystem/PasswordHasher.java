@@ -0,0 +1,140 @@
+package gymsystem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 (HmacSHA256) password hashes using only the JDK.
+ *
+ * The iteration count is calibrated once per run so a hash takes about
+ * gym.login.targetMillis (default 100 ms) on this machine, never going
+ * below MIN_ITERATIONS. Each user row stores its own salt and iteration
+ * count, so hashes made on slower hardware keep working and are upgraded
+ * on the next successful login.
+ */
+public class PasswordHasher {
+    private static final Log log = Log.get(PasswordHasher.class);
+
+    public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    public static final int MIN_ITERATIONS = 10_000;
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    // Calibration samples this many iterations and scales up
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final long WARMUP_NANOS = 300_000_000L;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static volatile int calibratedIterations;
+
+    public static final class Hash {
+        public final String hash;
+        public final String salt;
+        public final int iterations;
+
+        Hash(String hash, String salt, int iterations) {
+            this.hash = hash;
+            this.salt = salt;
+            this.iterations = iterations;
+        }
+    }
+
+    public static Hash hash(String password) {
+        return hash(password, getCalibratedIterations());
+    }
+
+    public static Hash hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return new Hash(base64.encodeToString(derive(password, salt, iterations)), base64.encodeToString(salt), iterations);
+    }
+
+    // Compares in constant time so the check doesn't leak how much of the hash matched.
+    // Throws IllegalArgumentException if the stored hash or salt isn't valid Base64.
+    public static boolean verify(String password, String hash, String salt, int iterations) {
+        if (hash == null || salt == null || iterations <= 0) {
+            return false;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] expected = base64.decode(hash);
+        byte[] actual = derive(password, base64.decode(salt), iterations);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    // For rows written before hashing existed
+    public static boolean verifyPlaintext(String password, String stored) {
+        return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // True when a stored hash is clearly cheaper than what this machine can afford now
+    public static boolean needsRehash(int storedIterations) {
+        return storedIterations < getCalibratedIterations() * 4 / 5;
+    }
+
+    public static int getCalibratedIterations() {
+        int iterations = calibratedIterations;
+        if (iterations == 0) {
+            synchronized (PasswordHasher.class) {
+                if (calibratedIterations == 0) {
+                    calibratedIterations = calibrate(Long.getLong("gym.login.targetMillis", 100));
+                }
+                iterations = calibratedIterations;
+            }
+        }
+        return iterations;
+    }
+
+    // Runs the calibration off the caller's thread so the first login doesn't pay for it
+    public static void calibrateInBackground() {
+        Thread t = new Thread(PasswordHasher::getCalibratedIterations, "password-calibration");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // Iteration count that takes about targetMillis here, rounded to a thousand
+    public static int calibrate(long targetMillis) {
+        String password = "calibration-password";
+        byte[] salt = new byte[SALT_BYTES];
+        // The HMAC loop is several times slower until the JIT compiles it, so warm up
+        // for a while before timing, then keep the fastest probe
+        long warmUntil = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmUntil) {
+            derive(password, salt, PROBE_ITERATIONS);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            derive(password, salt, PROBE_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long iterations = PROBE_ITERATIONS * targetMillis * 1_000_000L / Math.max(best, 1);
+        iterations = Math.max(MIN_ITERATIONS, Math.min(iterations, Integer.MAX_VALUE - 1000));
+        int rounded = (int) (iterations / 1000 * 1000);
+        log.info("Password hashing calibrated to %d iterations (%d ms target)", rounded, targetMillis);
+        return rounded;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        return derive(password.toCharArray(), salt, iterations);
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            // Every Java 8+ runtime ships this algorithm
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(password, '\0');
+        }
+    }
+}
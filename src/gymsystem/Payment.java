@@ -0,0 +1,72 @@
+package gymsystem;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the payments table, joined with the member's name.
+ *
+ * Immutable; use withStatus() to get an updated copy.
+ */
+public final class Payment {
+    private final int paymentId;
+    private final int memberId;
+    private final String memberName;
+    private final double amount;
+    private final LocalDate paymentDate;
+    private final String paymentType;
+    private final String month;
+    private final String status;
+
+    public Payment(int paymentId, int memberId, String memberName, double amount, LocalDate paymentDate,
+                   String paymentType, String month, String status) {
+        this.paymentId = paymentId;
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.paymentType = paymentType;
+        this.month = month;
+        this.status = status;
+    }
+
+    public Payment withStatus(String newStatus) {
+        return new Payment(paymentId, memberId, memberName, amount, paymentDate, paymentType, month, newStatus);
+    }
+
+    public int getPaymentId() {
+        return paymentId;
+    }
+
+    public int getMemberId() {
+        return memberId;
+    }
+
+    public String getMemberName() {
+        return memberName;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public LocalDate getPaymentDate() {
+        return paymentDate;
+    }
+
+    public String getPaymentType() {
+        return paymentType;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "Payment " + paymentId + " (member " + memberId + ", " + amount + ", " + status + ")";
+    }
+}
@@ -0,0 +1,151 @@
+package gymsystem;
+
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+/**
+ * Filter controls and pager for PaymentsForm.
+ *
+ * Fires an ActionEvent with command APPLY, PREVIOUS or NEXT; the form
+ * builds the query with buildQuery() and runs it through
+ * DatabaseHelper.findPayments().
+ */
+public class PaymentFilterPanel extends JPanel {
+    public static final String APPLY = "apply";
+    public static final String PREVIOUS = "previous";
+    public static final String NEXT = "next";
+
+    private static final String ANY = "All";
+    private static final String DATE_PATTERN = "\\d{4}-\\d{2}-\\d{2}";
+
+    private final JComboBox<String> cmbStatus = new JComboBox<>(new String[] { ANY, "PAID", "PENDING" });
+    private final JComboBox<String> cmbMonth = new JComboBox<>(new String[] { ANY, "January", "February", "March", "April", "May", "June",
+        "July", "August", "September", "October", "November", "December" });
+    private final JComboBox<String> cmbType = new JComboBox<>(new String[] { ANY, "Cash", "Credit Card", "Debit Card", "Bank Transfer" });
+    private final JTextField txtFrom = new JTextField(8);
+    private final JTextField txtTo = new JTextField(8);
+    private final JTextField txtMemberId = new JTextField(5);
+    private final JButton btnApply = new JButton("FILTER");
+    private final JButton btnClear = new JButton("CLEAR");
+    private final JButton btnPrevious = new JButton("<");
+    private final JButton btnNext = new JButton(">");
+    private final JLabel lblPage = new JLabel();
+
+    private ActionListener listener;
+
+    public PaymentFilterPanel() {
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        cmbType.setEditable(true);
+        txtFrom.setToolTipText("From date (yyyy-MM-dd)");
+        txtTo.setToolTipText("To date (yyyy-MM-dd)");
+
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filters.add(new JLabel("Status:"));
+        filters.add(cmbStatus);
+        filters.add(new JLabel("Month:"));
+        filters.add(cmbMonth);
+        filters.add(new JLabel("Type:"));
+        filters.add(cmbType);
+        filters.add(new JLabel("Member ID:"));
+        filters.add(txtMemberId);
+
+        JPanel dates = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        dates.add(new JLabel("From:"));
+        dates.add(txtFrom);
+        dates.add(new JLabel("To:"));
+        dates.add(txtTo);
+        dates.add(btnApply);
+        dates.add(btnClear);
+        dates.add(new JLabel("    "));
+        dates.add(btnPrevious);
+        dates.add(lblPage);
+        dates.add(btnNext);
+
+        add(filters);
+        add(dates);
+
+        btnApply.addActionListener(evt -> fire(APPLY));
+        txtMemberId.addActionListener(evt -> fire(APPLY));
+        txtFrom.addActionListener(evt -> fire(APPLY));
+        txtTo.addActionListener(evt -> fire(APPLY));
+        btnClear.addActionListener(evt -> {
+            clear();
+            fire(APPLY);
+        });
+        btnPrevious.addActionListener(evt -> fire(PREVIOUS));
+        btnNext.addActionListener(evt -> fire(NEXT));
+        setPage(0, 0, 0);
+    }
+
+    public void setActionListener(ActionListener listener) {
+        this.listener = listener;
+    }
+
+    // Filters only; the caller sets sort and paging. Throws if an input is malformed.
+    public PaymentQuery buildQuery() {
+        PaymentQuery query = new PaymentQuery();
+        query.status = selected(cmbStatus);
+        query.month = selected(cmbMonth);
+        query.paymentType = selected(cmbType);
+        query.fromDate = date(txtFrom, "From");
+        query.toDate = date(txtTo, "To");
+        String memberId = txtMemberId.getText().trim();
+        if (!memberId.isEmpty()) {
+            try {
+                query.memberId = Integer.parseInt(memberId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Member ID must be a number");
+            }
+        }
+        return query;
+    }
+
+    public void clear() {
+        cmbStatus.setSelectedIndex(0);
+        cmbMonth.setSelectedIndex(0);
+        cmbType.setSelectedIndex(0);
+        txtFrom.setText("");
+        txtTo.setText("");
+        txtMemberId.setText("");
+    }
+
+    // offset/limit/total of the rows currently shown
+    public void setPage(int offset, int shown, int total) {
+        if (total == 0) {
+            lblPage.setText("No payments");
+        } else {
+            lblPage.setText((offset + 1) + "-" + (offset + shown) + " of " + total);
+        }
+        btnPrevious.setEnabled(offset > 0);
+        btnNext.setEnabled(offset + shown < total);
+    }
+
+    private static String selected(JComboBox<String> combo) {
+        Object value = combo.getSelectedItem();
+        if (value == null || ANY.equals(value.toString())) {
+            return null;
+        }
+        return value.toString();
+    }
+
+    private static String date(JTextField field, String label) {
+        String text = field.getText().trim();
+        if (!text.isEmpty() && !text.matches(DATE_PATTERN)) {
+            throw new IllegalArgumentException(label + " date must be yyyy-MM-dd");
+        }
+        return text;
+    }
+
+    private void fire(String command) {
+        if (listener != null) {
+            listener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, command));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package gymsystem;
+
+import java.util.List;
+
+/**
+ * Filter, sort and page settings for DatabaseHelper.findPayments().
+ *
+ * Empty or null filters are ignored. Sorting is by table column index and
+ * mapped through a fixed list of SQL expressions, so nothing the user
+ * types ever ends up in the SQL text; filter values are bound parameters.
+ */
+public class PaymentQuery {
+    // Same order as the PaymentsForm columns
+    private static final String[] SORT_COLUMNS = {
+        "p.payment_id", "p.member_id", "m.full_name", "p.amount",
+        "p.payment_date", "p.payment_type", "p.month", "p.status"
+    };
+
+    public String status;
+    public String month;
+    public String paymentType;
+    public String fromDate;   // inclusive, yyyy-MM-dd
+    public String toDate;     // inclusive, yyyy-MM-dd
+    public int memberId;      // 0 = any member
+
+    public int sortColumn = 0;
+    public boolean ascending = false;
+
+    public int offset = 0;
+    public int limit = 200;
+
+    // Independent copy, e.g. for a background load while the form keeps editing its own
+    public PaymentQuery copy() {
+        PaymentQuery q = new PaymentQuery();
+        q.status = status;
+        q.month = month;
+        q.paymentType = paymentType;
+        q.fromDate = fromDate;
+        q.toDate = toDate;
+        q.memberId = memberId;
+        q.sortColumn = sortColumn;
+        q.ascending = ascending;
+        q.offset = offset;
+        q.limit = limit;
+        return q;
+    }
+
+    // WHERE clause (or "") for the filters; appends bind values to params in order
+    String whereClause(List<Object> params) {
+        StringBuilder where = new StringBuilder();
+        addFilter(where, params, "p.status = ?", status);
+        addFilter(where, params, "p.month = ?", month);
+        addFilter(where, params, "p.payment_type = ?", paymentType);
+        addFilter(where, params, "p.payment_date >= ?", fromDate);
+        addFilter(where, params, "p.payment_date <= ?", toDate);
+        if (memberId > 0) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ").append("p.member_id = ?");
+            params.add(memberId);
+        }
+        return where.toString();
+    }
+
+    String orderByClause() {
+        int column = sortColumn >= 0 && sortColumn < SORT_COLUMNS.length ? sortColumn : 0;
+        String direction = ascending ? " ASC" : " DESC";
+        String order = " ORDER BY " + SORT_COLUMNS[column] + direction;
+        // payment_id breaks ties so paging is stable
+        if (column != 0) {
+            order += ", p.payment_id" + direction;
+        }
+        return order;
+    }
+
+    private static void addFilter(StringBuilder where, List<Object> params, String condition, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        where.append(where.length() == 0 ? " WHERE " : " AND ").append(condition);
+        params.add(value.trim());
+    }
+}
@@ -2,50 +2,133 @@ package gymsystem;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import javax.swing.JOptionPane;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 
 public class PaymentsForm extends javax.swing.JFrame {
-    private DefaultTableModel tableModel;
+    private static final Log log = Log.get(PaymentsForm.class);
+    private static final int PAGE_SIZE = 200;
+
+    private final PaymentsTableModel tableModel = new PaymentsTableModel();
+    private PaymentQuery query = new PaymentQuery();
+    private CompletableFuture<List<Payment>> pendingLoad;
+    private final Consumer<DataChange> changeListener = this::dataChanged;
     
     public PaymentsForm() {
         initComponents(); // MUST BE FIRST
+        tblPayments.setModel(tableModel);
+        CellRenderers.install(tblPayments, 7);
+        filterPanel.setActionListener(evt -> filterPanelActionPerformed(evt));
+        tblPayments.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                tblPaymentsHeaderClicked(evt);
+            }
+        });
+        DataChanges.subscribe(changeListener);
         loadPaymentsTable();
     }   
+
+    // Where a new payment lands depends on the filter and sort, so re-read the current page only
+    private void dataChanged(DataChange change) {
+        if (change.touchesPayments()) {
+            loadPaymentsTable();
+        }
+    }
     
-	private void loadPaymentsTable() {
-		String[] columns = {"Payment ID", "Member ID", "Member Name", "Amount", "Payment Date", "Payment Type", "Month", "Status"};
-		
-		// Initialize the model
-		tableModel = new DefaultTableModel(columns, 0) {
-			@Override
-			public boolean isCellEditable(int row, int column) {
-				return false;
-			}
-		};
-		
-		// Check if table exists before setting model
-		if (tblPayments != null) {
-			tblPayments.setModel(tableModel);
-		} else {
-			System.err.println("Error: tblPayments is null!");
-			return;
-		}
-		
-		try {
-			List<String[]> payments = DatabaseHelper.getAllPayments();
-			if (payments != null) {
-				for (String[] payment : payments) {
-					tableModel.addRow(payment);
-				}
-			}
-		} catch (Exception e) {
-			System.err.println("Database Error: " + e.getMessage());
-		}
-	}
-
-    public void refreshTable() {
+    private void loadPaymentsTable() {
+        // Header shows the current sort
+        tableModel.setSortIndicator(query.sortColumn, query.ascending);
+        showSortIndicator();
+
+        // A newer load makes the one in flight pointless
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        // Only the requested page of matching rows comes back from SQLite
+        query.limit = PAGE_SIZE;
+        PaymentQuery q = query.copy();
+        int[] total = new int[1];
+        CompletableFuture<List<Payment>> load = AsyncDatabase.supply(() -> {
+            total[0] = DatabaseHelper.countPayments(q);
+            if (q.offset >= total[0]) {
+                q.offset = Math.max(0, (total[0] - 1) / PAGE_SIZE * PAGE_SIZE);
+            }
+            return DatabaseHelper.findPayments(q);
+        });
+        pendingLoad = load;
+        AsyncDatabase.onEdt(load, payments -> {
+            query.offset = q.offset;
+            tableModel.setPayments(payments);
+            filterPanel.setPage(q.offset, payments.size(), total[0]);
+        }, error -> log.warn("Could not load payments: %s", AsyncDatabase.describe(error)));
+    }
+
+    // Copies the model's column names into the existing header in place
+    private void showSortIndicator() {
+        TableColumnModel columns = tblPayments.getColumnModel();
+        for (int i = 0; i < columns.getColumnCount(); i++) {
+            TableColumn column = columns.getColumn(i);
+            column.setHeaderValue(tableModel.getColumnName(column.getModelIndex()));
+        }
+        tblPayments.getTableHeader().repaint();
+    }
+
+    @Override
+    public void dispose() {
+        DataChanges.unsubscribe(changeListener);
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        super.dispose();
+    }
+
+    private void filterPanelActionPerformed(ActionEvent evt) {
+        switch (evt.getActionCommand()) {
+            case PaymentFilterPanel.APPLY:
+                try {
+                    PaymentQuery filtered = filterPanel.buildQuery();
+                    filtered.sortColumn = query.sortColumn;
+                    filtered.ascending = query.ascending;
+                    query = filtered;
+                } catch (IllegalArgumentException e) {
+                    JOptionPane.showMessageDialog(this, e.getMessage(), "Filter", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                break;
+            case PaymentFilterPanel.PREVIOUS:
+                query.offset = Math.max(0, query.offset - PAGE_SIZE);
+                break;
+            case PaymentFilterPanel.NEXT:
+                query.offset += PAGE_SIZE;
+                break;
+            default:
+                return;
+        }
+        loadPaymentsTable();
+    }
+
+    // Click a column header to sort by it; click again to reverse
+    private void tblPaymentsHeaderClicked(MouseEvent evt) {
+        int viewColumn = tblPayments.columnAtPoint(evt.getPoint());
+        if (viewColumn < 0) {
+            return;
+        }
+        int column = tblPayments.convertColumnIndexToModel(viewColumn);
+        if (column == query.sortColumn) {
+            query.ascending = !query.ascending;
+        } else {
+            query.sortColumn = column;
+            query.ascending = true;
+        }
+        query.offset = 0;
         loadPaymentsTable();
     }
 
@@ -55,6 +138,7 @@ private void initComponents() {
 
     jPanel1 = new javax.swing.JPanel();
     jLabel1 = new javax.swing.JLabel();
+    filterPanel = new gymsystem.PaymentFilterPanel();
     jScrollPane1 = new javax.swing.JScrollPane();
     
     // --- CRITICAL FIX: Initialize the table object ---
@@ -112,6 +196,7 @@ private void initComponents() {
         .addGroup(layout.createSequentialGroup()
             .addContainerGap()
             .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                .addComponent(filterPanel, javax.swing.GroupLayout.DEFAULT_SIZE, 780, Short.MAX_VALUE)
                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 780, Short.MAX_VALUE)
                 .addGroup(layout.createSequentialGroup()
                     .addComponent(btnAddPayment)
@@ -128,6 +213,8 @@ private void initComponents() {
         .addGroup(layout.createSequentialGroup()
             .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
             .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+            .addComponent(filterPanel, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+            .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
             .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 400, Short.MAX_VALUE)
             .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
             .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
@@ -149,10 +236,11 @@ private void initComponents() {
     private void btnMarkPaidActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnMarkPaidActionPerformed
         int selectedRow = tblPayments.getSelectedRow();
         if (selectedRow >= 0) {
-            String memberName = tableModel.getValueAt(selectedRow, 2).toString();
+            Payment payment = tableModel.getPayment(selectedRow);
+            String memberName = payment.getMemberName();
             int confirm = JOptionPane.showConfirmDialog(this, "Mark payment for " + memberName + " as PAID?", "Confirm", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                tableModel.setValueAt("PAID", selectedRow, 7);
+                tableModel.setPayment(selectedRow, payment.withStatus("PAID"));
                 JOptionPane.showMessageDialog(this, "Payment marked as PAID!");
             }
         } else {
@@ -173,6 +261,7 @@ private void initComponents() {
     private javax.swing.JButton btnClose;
     private javax.swing.JButton btnMarkPaid;
     private javax.swing.JButton btnRefresh;
+    private gymsystem.PaymentFilterPanel filterPanel;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JScrollPane jScrollPane1;
@@ -0,0 +1,90 @@
+package gymsystem;
+
+import java.time.LocalDate;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model for tblPayments, rendering straight from Payment fields.
+ *
+ * The current page is a plain array, replaced in one go with a single
+ * fireTableDataChanged. Formatting is left to CellRenderers.
+ */
+public class PaymentsTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Payment ID", "Member ID", "Member Name", "Amount", "Payment Date", "Payment Type", "Month", "Status"};
+
+    private final String[] headers = COLUMNS.clone();
+    private Payment[] payments = new Payment[0];
+
+    public void setPayments(List<Payment> payments) {
+        this.payments = payments.toArray(new Payment[0]);
+        fireTableDataChanged();
+    }
+
+    // Marks the sorted column in getColumnName(). No structure change is fired, which would
+    // rebuild the columns and lose their widths and renderers: the table updates its header.
+    public void setSortIndicator(int column, boolean ascending) {
+        System.arraycopy(COLUMNS, 0, headers, 0, COLUMNS.length);
+        headers[column] += ascending ? " \u25B2" : " \u25BC";
+    }
+
+    public Payment getPayment(int row) {
+        return payments[row];
+    }
+
+    public void setPayment(int row, Payment payment) {
+        payments[row] = payment;
+        fireTableRowsUpdated(row, row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return payments.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return headers.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return headers[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+            case 1:
+                return Integer.class;
+            case 3:
+                return Double.class;
+            case 4:
+                return LocalDate.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Payment p = payments[row];
+        switch (column) {
+            case 0: return p.getPaymentId();
+            case 1: return p.getMemberId();
+            case 2: return p.getMemberName();
+            case 3: return p.getAmount();
+            case 4: return p.getPaymentDate();
+            case 5: return p.getPaymentType();
+            case 6: return p.getMonth();
+            case 7: return p.getStatus();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered schema migrations tracked in PRAGMA user_version.
+ *
+ * Each step runs in its own transaction together with the user_version
+ * bump, so a failed step leaves the database at the previous version.
+ * When the database is already current, migrate() only reads the version.
+ * To change the schema, append a step; never edit one that has shipped.
+ */
+public class SchemaMigrations {
+    private static final Log log = Log.get(SchemaMigrations.class);
+
+    interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        // The default admin used to be seeded here in plaintext; v9 adds it hashed
+        add(1, "Base tables", sql(
+                "CREATE TABLE IF NOT EXISTS users (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "username TEXT UNIQUE NOT NULL," +
+                    "password TEXT NOT NULL," +
+                    "fullname TEXT NOT NULL," +
+                    "email TEXT," +
+                    "user_type TEXT DEFAULT 'Admin')",
+                "CREATE TABLE IF NOT EXISTS members (" +
+                    "member_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "full_name TEXT NOT NULL," +
+                    "email TEXT," +
+                    "phone TEXT," +
+                    "address TEXT," +
+                    "age INTEGER," +
+                    "gender TEXT," +
+                    "membership_type TEXT," +
+                    "join_date TEXT," +
+                    "expiry_date TEXT," +
+                    "status TEXT DEFAULT 'ACTIVE')",
+                "CREATE TABLE IF NOT EXISTS payments (" +
+                    "payment_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "member_id INTEGER," +
+                    "amount REAL," +
+                    "payment_date TEXT," +
+                    "payment_type TEXT," +
+                    "month TEXT," +
+                    "status TEXT DEFAULT 'PENDING'," +
+                    "FOREIGN KEY(member_id) REFERENCES members(member_id) ON DELETE CASCADE)"));
+
+        add(2, "Performance indexes", sql(
+                // payments.member_id is the join and foreign key column
+                "CREATE INDEX IF NOT EXISTS idx_payments_member ON payments(member_id)",
+                "CREATE INDEX IF NOT EXISTS idx_payments_status_date ON payments(status, payment_date)",
+                "CREATE INDEX IF NOT EXISTS idx_payments_month_status ON payments(month, status)",
+                "CREATE INDEX IF NOT EXISTS idx_payments_type ON payments(payment_type)",
+                "CREATE INDEX IF NOT EXISTS idx_payments_date ON payments(payment_date)",
+                "CREATE INDEX IF NOT EXISTS idx_members_status ON members(status)",
+                "CREATE INDEX IF NOT EXISTS idx_members_expiry ON members(expiry_date)"));
+
+        add(3, "Planner statistics", sql("ANALYZE"));
+
+        add(4, "Dashboard summary row and triggers", DashboardStats::install);
+
+        // ExpirySweeper scans status = 'ACTIVE' AND expiry_date < today as one index range
+        add(5, "Expiry sweep index", sql(
+                "CREATE INDEX IF NOT EXISTS idx_members_status_expiry ON members(status, expiry_date)"));
+
+        // External-content FTS5 index for MemberSearch; the triggers keep it in step with members
+        add(6, "Member search index", sql(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS members_fts USING fts5(" +
+                    "full_name, email, phone, content='members', content_rowid='member_id', prefix='2 3')",
+                "CREATE TRIGGER IF NOT EXISTS trg_members_fts_insert AFTER INSERT ON members BEGIN " +
+                    "INSERT INTO members_fts(rowid, full_name, email, phone) " +
+                    "VALUES (NEW.member_id, NEW.full_name, NEW.email, NEW.phone); END",
+                "CREATE TRIGGER IF NOT EXISTS trg_members_fts_delete AFTER DELETE ON members BEGIN " +
+                    "INSERT INTO members_fts(members_fts, rowid, full_name, email, phone) " +
+                    "VALUES ('delete', OLD.member_id, OLD.full_name, OLD.email, OLD.phone); END",
+                "CREATE TRIGGER IF NOT EXISTS trg_members_fts_update AFTER UPDATE OF full_name, email, phone ON members BEGIN " +
+                    "INSERT INTO members_fts(members_fts, rowid, full_name, email, phone) " +
+                    "VALUES ('delete', OLD.member_id, OLD.full_name, OLD.email, OLD.phone); " +
+                    "INSERT INTO members_fts(rowid, full_name, email, phone) " +
+                    "VALUES (NEW.member_id, NEW.full_name, NEW.email, NEW.phone); END",
+                // Index the members that already exist
+                "INSERT INTO members_fts(members_fts) VALUES ('rebuild')"));
+
+        // NULL iterations marks a legacy plaintext password; validateLogin hashes it on the next successful login
+        add(7, "Per-user password salt and cost", sql(
+                "ALTER TABLE users ADD COLUMN password_salt TEXT",
+                "ALTER TABLE users ADD COLUMN password_iterations INTEGER"));
+
+        // The v4 triggers failed any write of a member or payment with a NULL status
+        add(8, "NULL-safe dashboard triggers", DashboardStats::reinstallTriggers);
+
+        // New and reset databases; an existing admin row is left to be rehashed on its next login
+        add(9, "Hashed default admin", DatabaseHelper::seedDefaultAdmin);
+    }
+
+    public static final int CURRENT_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+
+    private static void add(int version, String description, Step step) {
+        MIGRATIONS.add(new Migration(version, description, step));
+    }
+
+    private static Step sql(String... statements) {
+        return c -> {
+            try (Statement stmt = c.createStatement()) {
+                for (String statement : statements) {
+                    stmt.execute(statement);
+                }
+            }
+        };
+    }
+
+    public static int getVersion(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public static boolean isCurrent(Connection c) throws SQLException {
+        return getVersion(c) >= CURRENT_VERSION;
+    }
+
+    // Applies every step newer than the database; returns the number applied
+    public static int migrate(Connection c) throws SQLException {
+        int version = getVersion(c);
+        if (version > CURRENT_VERSION) {
+            log.error("Database schema v%d is newer than this application (v%d)", version, CURRENT_VERSION);
+            return 0;
+        }
+        int applied = 0;
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= version) {
+                continue;
+            }
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try {
+                m.step.apply(c);
+                try (Statement stmt = c.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + m.version);
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw new SQLException("Migration v" + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+            log.info("Schema migrated to v%d: %s", m.version, m.description);
+            applied++;
+        }
+        return applied;
+    }
+}
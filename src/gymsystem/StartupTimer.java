@@ -0,0 +1,40 @@
+package gymsystem;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records startup milestones relative to JVM start and prints one report
+ * once both the login window has painted and the database is ready.
+ */
+public class StartupTimer {
+    private static final Log log = Log.get(StartupTimer.class);
+
+    public static final String MAIN = "main() entered";
+    public static final String FIRST_PAINT = "login window painted";
+    public static final String DATABASE_READY = "database ready";
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+    private static boolean reported;
+
+    // Only the first mark of each name counts
+    public static synchronized void mark(String name) {
+        if (!marks.containsKey(name)) {
+            marks.put(name, System.currentTimeMillis() - JVM_START);
+        }
+        if (!reported && marks.containsKey(FIRST_PAINT) && marks.containsKey(DATABASE_READY)) {
+            reported = true;
+            log.info("%s", report());
+        }
+    }
+
+    public static synchronized String report() {
+        StringBuilder report = new StringBuilder("Startup timing (ms since JVM start):");
+        for (Map.Entry<String, Long> mark : marks.entrySet()) {
+            report.append(String.format("%n  %-22s %6d", mark.getKey(), mark.getValue()));
+        }
+        return report.toString();
+    }
+}
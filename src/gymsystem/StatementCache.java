@@ -0,0 +1,198 @@
+package gymsystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection LRU cache of prepared statements keyed by SQL text.
+ *
+ * prepare() hands out a wrapper whose close() only resets the statement
+ * (closes its ResultSet and clears parameters) and returns it to the
+ * cache, so existing try-with-resources code keeps working unchanged.
+ * A connection is only ever used by one thread at a time (see
+ * ConnectionPool), so the cache itself is not shared between threads.
+ */
+public class StatementCache {
+    public static final int DEFAULT_CAPACITY = 32;
+
+    // Counters are shared by all connections
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private final Connection raw;
+    private final Map<String, CachedStatement> entries;
+
+    public StatementCache(Connection raw, final int capacity) {
+        this.raw = raw;
+        this.entries = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement entry = entries.get(sql);
+        if (entry != null && !entry.inUse && !entry.statement.isClosed()) {
+            hits.incrementAndGet();
+            return entry.checkout();
+        }
+        misses.incrementAndGet();
+        if (entry != null && entry.inUse) {
+            // Same SQL already open on this connection (nested use); don't cache the second one
+            return raw.prepareStatement(sql);
+        }
+        entry = new CachedStatement(raw.prepareStatement(sql));
+        entries.put(sql, entry);
+        return entry.checkout();
+    }
+
+    public void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (CachedStatement entry : all) {
+            entry.evict();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public static String getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        long total = h + m;
+        return "Statement cache: " + h + " hits, " + m + " misses, " + evictions.get() + " evictions"
+                + (total > 0 ? String.format(" (%.1f%% hit rate)", 100.0 * h / total) : "");
+    }
+
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse = false;
+        boolean evicted = false;
+        ResultSet openResultSet;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement checkout() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new Handle(this));
+        }
+
+        // Called when the caller closes its handle
+        void checkin() {
+            inUse = false;
+            try {
+                if (openResultSet != null) {
+                    openResultSet.close();
+                    openResultSet = null;
+                }
+                if (evicted) {
+                    statement.close();
+                } else {
+                    statement.clearParameters();
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Nothing useful to do with a statement we are throwing away
+            }
+        }
+    }
+
+    // One checkout of a cached statement
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement entry;
+        private boolean closed = false;
+
+        Handle(CachedStatement entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            int argc = method.getParameterCount();
+            if ("close".equals(name) && argc == 0) {
+                if (!closed) {
+                    closed = true;
+                    entry.checkin();
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && argc == 0) {
+                return closed || entry.statement.isClosed();
+            }
+            if ("equals".equals(name) && argc == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && argc == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                // Remember it so check-in can release the read cursor
+                entry.openResultSet = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+}
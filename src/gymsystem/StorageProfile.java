@@ -0,0 +1,207 @@
+package gymsystem;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Named set of SQLite storage settings applied to every pooled connection.
+ *
+ * Profiles are read from a properties file (see storage.properties):
+ *   storage.profile=fast-desk
+ *   profile.fast-desk.synchronous=NORMAL
+ * Any key left out falls back to the built-in profile of the same name,
+ * or to "durable" for profiles that are not built in.
+ */
+public class StorageProfile {
+    private static final Log log = Log.get(StorageProfile.class);
+
+    public static final String DEFAULT_FILE = "storage.properties";
+    // Committed payments must survive a power cut unless the desk opts out
+    public static final String DEFAULT_PROFILE = "durable";
+
+    private static final List<String> JOURNAL_MODES = Arrays.asList("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final List<String> SYNCHRONOUS_LEVELS = Arrays.asList("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final List<String> TEMP_STORES = Arrays.asList("DEFAULT", "FILE", "MEMORY");
+    private static final List<String> CHECKPOINT_MODES = Arrays.asList("PASSIVE", "FULL", "RESTART", "TRUNCATE");
+
+    private final String name;
+    private String journalMode;
+    private String synchronous;
+    private long mmapSize;              // bytes, 0 disables memory-mapped I/O
+    private int cacheSize;              // pages if positive, KiB if negative (SQLite convention)
+    private String tempStore;
+    private int walAutoCheckpoint;      // pages, 0 disables SQLite's own checkpointing
+    private int checkpointIntervalSeconds; // 0 disables the background checkpointer
+    private String checkpointMode;
+
+    private StorageProfile(String name) {
+        this.name = name;
+    }
+
+    public static StorageProfile builtIn(String name) {
+        StorageProfile p = new StorageProfile(name);
+        switch (name) {
+            case "fast-desk":
+                // Opt-in: WAL keeps readers unblocked, NORMAL only fsyncs at checkpoints,
+                // so a power cut can lose commits made since the last one
+                p.journalMode = "WAL";
+                p.synchronous = "NORMAL";
+                p.mmapSize = 256L * 1024 * 1024;
+                p.cacheSize = -32000;
+                p.tempStore = "MEMORY";
+                p.walAutoCheckpoint = 1000;
+                p.checkpointIntervalSeconds = 30;
+                p.checkpointMode = "PASSIVE";
+                break;
+            case "bulk-load":
+                // Imports: no fsync, big cache, checkpoint often so the -wal file stays small
+                p.journalMode = "WAL";
+                p.synchronous = "OFF";
+                p.mmapSize = 256L * 1024 * 1024;
+                p.cacheSize = -131072;
+                p.tempStore = "MEMORY";
+                p.walAutoCheckpoint = 0;
+                p.checkpointIntervalSeconds = 10;
+                p.checkpointMode = "TRUNCATE";
+                break;
+            default:
+                // "durable" and anything unknown: fsync every commit
+                p.journalMode = "WAL";
+                p.synchronous = "FULL";
+                p.mmapSize = 0;
+                p.cacheSize = -8000;
+                p.tempStore = "DEFAULT";
+                p.walAutoCheckpoint = 1000;
+                p.checkpointIntervalSeconds = 60;
+                p.checkpointMode = "PASSIVE";
+                break;
+        }
+        return p;
+    }
+
+    // Load the profile named by -Dgym.storage.profile or the file's storage.profile key
+    public static StorageProfile load(String path) {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            props.load(in);
+        } catch (IOException e) {
+            log.info("No storage profile file at %s, using built-in defaults", path);
+        }
+        String name = System.getProperty("gym.storage.profile", props.getProperty("storage.profile", DEFAULT_PROFILE)).trim();
+        try {
+            return fromProperties(name, props);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid storage profile '%s': %s. Falling back to %s", name, e.getMessage(), DEFAULT_PROFILE);
+            return builtIn(DEFAULT_PROFILE);
+        }
+    }
+
+    public static StorageProfile fromProperties(String name, Properties props) {
+        StorageProfile p = builtIn(name);
+        String prefix = "profile." + name + ".";
+        p.journalMode = choice(props, prefix + "journal_mode", p.journalMode, JOURNAL_MODES);
+        p.synchronous = choice(props, prefix + "synchronous", p.synchronous, SYNCHRONOUS_LEVELS);
+        p.mmapSize = number(props, prefix + "mmap_size", p.mmapSize);
+        p.cacheSize = (int) number(props, prefix + "cache_size", p.cacheSize);
+        p.tempStore = choice(props, prefix + "temp_store", p.tempStore, TEMP_STORES);
+        p.walAutoCheckpoint = (int) number(props, prefix + "wal_autocheckpoint", p.walAutoCheckpoint);
+        p.checkpointIntervalSeconds = (int) number(props, prefix + "checkpoint_interval_seconds", p.checkpointIntervalSeconds);
+        p.checkpointMode = choice(props, prefix + "checkpoint_mode", p.checkpointMode, CHECKPOINT_MODES);
+        return p;
+    }
+
+    private static String choice(Properties props, String key, String fallback, List<String> allowed) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        // Values end up inside PRAGMA text, so only known keywords are accepted
+        value = value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(value)) {
+            throw new IllegalArgumentException(key + " must be one of " + allowed);
+        }
+        return value;
+    }
+
+    private static long number(Properties props, String key, long fallback) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+    }
+
+    public void apply(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA wal_autocheckpoint = " + walAutoCheckpoint);
+        }
+    }
+
+    public boolean isWal() {
+        return "WAL".equals(journalMode);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getWalAutoCheckpoint() {
+        return walAutoCheckpoint;
+    }
+
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    public String getCheckpointMode() {
+        return checkpointMode;
+    }
+
+    @Override
+    public String toString() {
+        return "Storage profile '" + name + "': journal_mode=" + journalMode
+                + ", synchronous=" + synchronous
+                + ", mmap_size=" + mmapSize
+                + ", cache_size=" + cacheSize
+                + ", temp_store=" + tempStore
+                + ", wal_autocheckpoint=" + walAutoCheckpoint
+                + ", checkpoint=" + (checkpointIntervalSeconds > 0 ? checkpointMode + " every " + checkpointIntervalSeconds + "s" : "off");
+    }
+}
@@ -0,0 +1,87 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically checkpoints the WAL so the -wal file stays bounded.
+ *
+ * Runs on a single daemon thread and borrows a pooled connection for each
+ * checkpoint, so it never holds a connection between runs.
+ */
+public class WalCheckpointer {
+    private static final Log log = Log.get(WalCheckpointer.class);
+
+    private final ConnectionPool pool;
+    private final StorageProfile profile;
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong busyRuns = new AtomicLong();
+    private volatile int lastWalFrames = 0;
+
+    public WalCheckpointer(ConnectionPool pool, StorageProfile profile) {
+        this.pool = pool;
+        this.profile = profile;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || !profile.isWal() || profile.getCheckpointIntervalSeconds() <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wal-checkpointer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = profile.getCheckpointIntervalSeconds();
+        scheduler.scheduleWithFixedDelay(() -> checkpoint(profile.getCheckpointMode()), interval, interval, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        // Leave a small -wal file behind on clean shutdown
+        checkpoint("TRUNCATE");
+    }
+
+    // Returns false if the checkpoint could not complete because of readers or writers
+    public boolean checkpoint(String mode) {
+        try (Connection c = pool.borrow(); Statement stmt = c.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            runs.incrementAndGet();
+            if (rs.next()) {
+                boolean busy = rs.getInt(1) != 0;
+                lastWalFrames = rs.getInt(2);
+                if (busy) {
+                    busyRuns.incrementAndGet();
+                }
+                return !busy;
+            }
+        } catch (SQLException e) {
+            log.warn("WAL checkpoint failed: %s", e.getMessage());
+        }
+        return false;
+    }
+
+    public long getRunCount() {
+        return runs.get();
+    }
+
+    public long getBusyCount() {
+        return busyRuns.get();
+    }
+
+    public int getLastWalFrames() {
+        return lastWalFrames;
+    }
+}
@@ -0,0 +1,264 @@
+package gymsystem;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single writer thread with group commit.
+ *
+ * Writes are queued as commands and run one at a time by the "db-writer"
+ * thread on its own connection, so they never interleave and never fight
+ * each other for SQLite's write lock. Whatever is waiting when the writer
+ * wakes up (up to MAX_BATCH commands) runs in one transaction and costs a
+ * single commit. Each command gets a savepoint, so a failing command is
+ * rolled back alone and the rest of the batch still commits.
+ *
+ * The future returned by submit() completes after the commit, that is once
+ * the write is as durable as the storage profile's synchronous setting
+ * makes it: fsynced under the default "durable" profile, not yet under
+ * "fast-desk". It completes on the writer thread: keep callbacks short, or use
+ * the *Async variants to move them elsewhere.
+ *
+ * With watchDataVersion() the writer also notices commits made by anyone
+ * else. PRAGMA data_version on a connection only changes when another
+ * connection commits, so reading it on the writer's own connection tells
+ * "someone else wrote" apart from our own writes for free. Bulk jobs run
+ * their writes through submitAndWait() to keep that reading exact; the
+ * rare maintenance commit made on another connection (migration, reset)
+ * is reported like another desk's, since a redundant reload is cheaper
+ * than a missed change.
+ */
+public class WriteQueue {
+    private static final Log log = Log.get(WriteQueue.class);
+
+    public static final int MAX_BATCH = 256;
+
+    // One write command; runs on the writer thread inside the current transaction
+    public interface Write<T> {
+        T apply(Connection c) throws SQLException;
+    }
+
+    private static final class Pending<T> {
+        final Write<T> write;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        SQLException error;
+
+        Pending(Write<T> write) {
+            this.write = write;
+        }
+
+        void run(Connection c) throws SQLException {
+            result = write.apply(c);
+        }
+
+        void complete(SQLException batchError) {
+            SQLException e = batchError != null ? batchError : error;
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean stopped = false;
+
+    // data_version watch; only touched by the writer thread once started
+    private long pollMillis;
+    private Runnable onExternalChange;
+    private long dataVersion = -1;
+    private long nextPoll;
+
+    // Metrics
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong failedCommits = new AtomicLong();
+    private volatile int largestBatch;
+
+    // The pool should hold a single connection reserved for this writer
+    public WriteQueue(ConnectionPool pool) {
+        this.pool = pool;
+        this.thread = new Thread(this::run, "db-writer");
+        this.thread.setDaemon(true);
+    }
+
+    // Call before start(): runs onExternalChange on the writer thread, at most every
+    // intervalMillis, whenever another connection has committed since the last look
+    public void watchDataVersion(long intervalMillis, Runnable onExternalChange) {
+        this.pollMillis = intervalMillis;
+        this.onExternalChange = onExternalChange;
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public <T> CompletableFuture<T> submit(Write<T> write) {
+        Pending<T> pending = new Pending<>(write);
+        synchronized (this) {
+            if (!stopped) {
+                queue.add(pending);
+                return pending.future;
+            }
+        }
+        pending.future.completeExceptionally(new SQLException("Database writer is stopped"));
+        return pending.future;
+    }
+
+    // Queues write and blocks until it is committed; for bulk jobs that write in steps
+    public <T> T submitAndWait(Write<T> write) throws SQLException {
+        try {
+            return submit(write).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+        }
+    }
+
+    // Commits what is already queued, then stops; later submits fail at once
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+        }
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the writer didn't get to
+        Pending<?> pending;
+        SQLException stoppedError = new SQLException("Database writer is stopped");
+        while ((pending = queue.poll()) != null) {
+            pending.complete(stoppedError);
+        }
+    }
+
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                if (stopped) {
+                    // Drain without waiting, then exit
+                    Pending<?> next = queue.poll();
+                    if (next == null) {
+                        return;
+                    }
+                    batch.add(next);
+                } else if (pollMillis > 0) {
+                    Pending<?> next = queue.poll(Math.max(1, nextPoll - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        // Idle: just look at data_version
+                        try (Connection c = pool.borrow()) {
+                            checkDataVersion(c);
+                        } catch (SQLException e) {
+                            log.warn("Could not open the writer connection: %s", e.getMessage());
+                            nextPoll = System.currentTimeMillis() + pollMillis;
+                        }
+                        continue;
+                    }
+                    batch.add(next);
+                } else {
+                    batch.add(queue.take());
+                }
+            } catch (InterruptedException e) {
+                // stop() wakes us up; loop round to drain
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending<?>> batch) {
+        SQLException batchError = null;
+        try (Connection c = pool.borrow()) {
+            if (pollMillis > 0 && System.currentTimeMillis() >= nextPoll) {
+                // A busy writer never goes idle, so look before the batch too
+                checkDataVersion(c);
+            }
+            c.setAutoCommit(false);
+            try {
+                for (Pending<?> pending : batch) {
+                    Savepoint savepoint = c.setSavepoint();
+                    try {
+                        pending.run(c);
+                        c.releaseSavepoint(savepoint);
+                    } catch (SQLException | RuntimeException e) {
+                        c.rollback(savepoint);
+                        c.releaseSavepoint(savepoint);
+                        pending.error = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+                    }
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            batchError = e;
+            failedCommits.incrementAndGet();
+            log.error(e, "Group commit of %d writes failed", batch.size());
+        }
+        commands.addAndGet(batch.size());
+        if (batchError == null) {
+            commits.incrementAndGet();
+        }
+        if (batch.size() > largestBatch) {
+            largestBatch = batch.size();
+        }
+        for (Pending<?> pending : batch) {
+            pending.complete(batchError);
+        }
+    }
+
+    private void checkDataVersion(Connection c) {
+        nextPoll = System.currentTimeMillis() + pollMillis;
+        long version;
+        try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            version = rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            log.warn("PRAGMA data_version failed: %s", e.getMessage());
+            return;
+        }
+        // The first reading is only a baseline
+        if (dataVersion >= 0 && version != dataVersion) {
+            try {
+                onExternalChange.run();
+            } catch (RuntimeException e) {
+                log.error(e, "External change callback failed");
+            }
+        }
+        dataVersion = version;
+    }
+
+    @Override
+    public String toString() {
+        long n = commits.get();
+        long attempts = n + failedCommits.get();
+        return String.format("Writer: %d writes in %d commits (avg %.1f, max %d per commit), %d failed commits, %d queued",
+                commands.get(), n, attempts == 0 ? 0.0 : commands.get() / (double) attempts, largestBatch, failedCommits.get(), queue.size());
+    }
+}